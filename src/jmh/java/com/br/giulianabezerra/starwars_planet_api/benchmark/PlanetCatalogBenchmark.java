@@ -0,0 +1,59 @@
+package com.br.giulianabezerra.starwars_planet_api.benchmark;
+
+import com.br.giulianabezerra.starwars_planet_api.domain.PlanetCatalogSnapshot;
+import com.br.giulianabezerra.starwars_planet_api.domain.PlanetFilter;
+import com.br.giulianabezerra.starwars_planet_api.domain.PlanetView;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Lookups on a {@link PlanetCatalogSnapshot} of {@code planets} planets, without the
+ * service's proxies; {@link PlanetServiceBenchmark} with {@code -p catalog=true} adds them.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class PlanetCatalogBenchmark {
+    private static final int PAGE_SIZE = 100;
+    private static final String[] TERRAINS = {"desert", "grasslands, mountains", "jungle, rainforest", "tundra, ice caves", "ocean"};
+
+    @Param({"1000000"})
+    private int planets;
+
+    private PlanetCatalogSnapshot snapshot;
+    private final PlanetFilter mountains = PlanetFilter.of("mountains", null);
+
+    @Setup
+    public void setUp() {
+        snapshot = PlanetCatalogSnapshot.of(IntStream.range(0, planets)
+                .mapToObj(i -> new PlanetView(i + 1L, name(i), "temperate", TERRAINS[i % TERRAINS.length]))
+                .toList());
+    }
+
+    @Benchmark
+    public Optional<PlanetView> findById() {
+        return snapshot.findById(1L + ThreadLocalRandom.current().nextInt(planets));
+    }
+
+    @Benchmark
+    public Optional<PlanetView> findByName() {
+        return snapshot.findByName(name(ThreadLocalRandom.current().nextInt(planets)));
+    }
+
+    @Benchmark
+    public List<PlanetView> findPageByTag() {
+        return snapshot.findPage(mountains, 1L + ThreadLocalRandom.current().nextInt(planets), PAGE_SIZE + 1);
+    }
+
+    private static String name(int i) {
+        return "planet-" + i;
+    }
+}
@@ -0,0 +1,42 @@
+package com.br.giulianabezerra.starwars_planet_api.benchmark;
+
+import com.br.giulianabezerra.starwars_planet_api.domain.Planet;
+import org.apache.commons.lang3.builder.EqualsBuilder;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code Planet.equals} against the reflection-based comparison it replaced.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PlanetEqualsBenchmark {
+    private final Planet planet = new Planet(2L, "Alderaan", "temperate", "grasslands, mountains");
+    private final Planet same = new Planet(2L, "Alderaan", "temperate", "grasslands, mountains");
+    private final Planet other = new Planet(3L, "Yavin IV", "temperate, tropical", "jungle, rainforest");
+
+    @Benchmark
+    public boolean equalsSame() {
+        return planet.equals(same);
+    }
+
+    @Benchmark
+    public boolean equalsOther() {
+        return planet.equals(other);
+    }
+
+    @Benchmark
+    public int hashCodeOf() {
+        return planet.hashCode();
+    }
+
+    @Benchmark
+    public boolean reflectionEqualsSame() {
+        return EqualsBuilder.reflectionEquals(planet, same, "terrainTags", "climateTags");
+    }
+}
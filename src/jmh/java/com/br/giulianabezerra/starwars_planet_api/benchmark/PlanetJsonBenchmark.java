@@ -0,0 +1,91 @@
+package com.br.giulianabezerra.starwars_planet_api.benchmark;
+
+import com.br.giulianabezerra.starwars_planet_api.domain.Planet;
+import com.br.giulianabezerra.starwars_planet_api.domain.PlanetView;
+import com.br.giulianabezerra.starwars_planet_api.web.PlanetJsonCache;
+import org.openjdk.jmh.annotations.*;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Jackson serialization of the entity and of the view served by the read endpoints,
+ * against writing the view's pre-encoded JSON from {@link PlanetJsonCache}. Run with
+ * {@code -Djmh.args="PlanetJson -prof gc"} to compare the bytes allocated per call
+ * ({@code gc.alloc.rate.norm}); the pre-encoded writes should allocate close to nothing.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PlanetJsonBenchmark {
+
+    @Param({"100", "1000"})
+    private int size;
+
+    private final JsonMapper mapper = JsonMapper.builder().build();
+    private Planet planet;
+    private PlanetView view;
+    private List<Planet> planets;
+    private List<PlanetView> views;
+    private PlanetJsonCache cache;
+    private final OutputStream out = OutputStream.nullOutputStream();
+
+    @Setup
+    public void setUp() {
+        planets = IntStream.range(0, size)
+                .mapToObj(i -> new Planet((long) i, "planet-" + i, "temperate, tropical", "jungle, rainforest"))
+                .toList();
+        views = planets.stream().map(PlanetView::of).toList();
+        planet = planets.getFirst();
+        view = views.getFirst();
+        cache = new PlanetJsonCache(mapper, size);
+        views.forEach(cache::put);
+    }
+
+    @Benchmark
+    public byte[] planet() {
+        return mapper.writeValueAsBytes(planet);
+    }
+
+    @Benchmark
+    public byte[] planetList() {
+        return mapper.writeValueAsBytes(planets);
+    }
+
+    @Benchmark
+    public byte[] view() {
+        return mapper.writeValueAsBytes(view);
+    }
+
+    @Benchmark
+    public byte[] viewList() {
+        return mapper.writeValueAsBytes(views);
+    }
+
+    @Benchmark
+    public void viewToStream() {
+        mapper.writeValue(out, view);
+    }
+
+    @Benchmark
+    public void viewListToStream() {
+        mapper.writeValue(out, views);
+    }
+
+    @Benchmark
+    public void preencodedView() throws IOException {
+        out.write(cache.json(view));
+    }
+
+    @Benchmark
+    public void preencodedViewList() throws IOException {
+        cache.write(views, out);
+    }
+}
@@ -0,0 +1,107 @@
+package com.br.giulianabezerra.starwars_planet_api.benchmark;
+
+import com.br.giulianabezerra.starwars_planet_api.StarwarsPlanetApiApplication;
+import com.br.giulianabezerra.starwars_planet_api.domain.*;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Limit;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+/**
+ * End-to-end {@link PlanetService} calls on an embedded H2 loaded with {@code planets} rows.
+ * The planet cache is cleared before each call by default so the database path is
+ * measured; pass {@code -p cached=true} to measure with it, and {@code -p catalog=true}
+ * to serve the reads from the in-memory catalog.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g", "-Dspring.devtools.restart.enabled=false"})
+@State(Scope.Benchmark)
+public class PlanetServiceBenchmark {
+    private static final int LOAD_CHUNK = 10_000;
+    private static final int PAGE_SIZE = 100;
+    private static final int LOOKUP_SIZE = 50;
+    private static final String[] TERRAINS = {"desert", "grasslands, mountains", "jungle, rainforest", "tundra, ice caves", "ocean"};
+
+    @Param({"10000", "100000", "1000000"})
+    private int planets;
+
+    @Param({"false"})
+    private boolean cached;
+
+    @Param({"false"})
+    private boolean catalog;
+
+    private ConfigurableApplicationContext context;
+    private PlanetService service;
+    private PlanetCache cache;
+    private long firstId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(StarwarsPlanetApiApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("benchmark")
+                .properties("logging.level.root=warn", "planets.catalog.enabled=" + catalog)
+                .run();
+        service = context.getBean(PlanetService.class);
+        cache = context.getBean(PlanetCache.class);
+
+        PlanetRepository repository = context.getBean(PlanetRepository.class);
+        for (int from = 0; from < planets; from += LOAD_CHUNK) {
+            repository.insertAll(IntStream.range(from, Math.min(from + LOAD_CHUNK, planets))
+                    .mapToObj(i -> new Planet(name(i), "temperate", TERRAINS[i % TERRAINS.length]))
+                    .toList());
+        }
+        firstId = repository.findNamesAfter(0L, Limit.of(1)).getFirst().id();
+        context.getBean(PlanetNameFilter.class).rebuild();
+        context.getBean(PlanetCatalog.class).reload();
+    }
+
+    @Setup(Level.Invocation)
+    public void clearCache() {
+        if (!cached) {
+            cache.evictAll();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public PlanetView findById() {
+        return service.findById(firstId + ThreadLocalRandom.current().nextInt(planets));
+    }
+
+    @Benchmark
+    public PlanetView findByName() {
+        return service.findByName(name(ThreadLocalRandom.current().nextInt(planets)));
+    }
+
+    @Benchmark
+    public PlanetPage findAllByTag() {
+        long cursor = firstId + ThreadLocalRandom.current().nextInt(planets);
+        return service.findAll(PlanetFilter.of("mountains", null), PlanetPage.encodeCursor(cursor), PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<PlanetView> lookupByIds() {
+        long from = firstId + ThreadLocalRandom.current().nextInt(planets - LOOKUP_SIZE);
+        return service.findAll(LongStream.range(from, from + LOOKUP_SIZE).boxed().toList(), null);
+    }
+
+    private static String name(int i) {
+        return "planet-" + i;
+    }
+}
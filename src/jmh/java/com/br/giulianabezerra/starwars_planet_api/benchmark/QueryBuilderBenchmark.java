@@ -0,0 +1,24 @@
+package com.br.giulianabezerra.starwars_planet_api.benchmark;
+
+import com.br.giulianabezerra.starwars_planet_api.domain.Planet;
+import com.br.giulianabezerra.starwars_planet_api.domain.QueryBuilder;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Example;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class QueryBuilderBenchmark {
+    private String climate = "temperate";
+    private String terrain = "grasslands, mountains";
+
+    @Benchmark
+    public Example<Planet> makeQuery() {
+        return QueryBuilder.makeQuery(new Planet(climate, terrain));
+    }
+}
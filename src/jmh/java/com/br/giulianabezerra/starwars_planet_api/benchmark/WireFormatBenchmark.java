@@ -0,0 +1,62 @@
+package com.br.giulianabezerra.starwars_planet_api.benchmark;
+
+import com.br.giulianabezerra.starwars_planet_api.domain.PlanetView;
+import org.openjdk.jmh.annotations.*;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.dataformat.cbor.CBORMapper;
+import tools.jackson.dataformat.smile.SmileMapper;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Encoding and decoding planet lists in each wire format the read endpoints negotiate.
+ * The payload size of each format is printed once per trial, next to the timings.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class WireFormatBenchmark {
+    private static final String[] CLIMATES = {"arid", "temperate", "temperate, tropical", "frozen", "murky"};
+    private static final String[] TERRAINS = {"desert", "grasslands, mountains", "jungle, rainforest", "tundra, ice caves", "swamp"};
+
+    @Param({"1000", "100000"})
+    private int size;
+
+    @Param({"json", "cbor", "smile"})
+    private String format;
+
+    private ObjectMapper mapper;
+    private List<PlanetView> planets;
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() {
+        mapper = switch (format) {
+            case "cbor" -> CBORMapper.builder().build();
+            case "smile" -> SmileMapper.builder().build();
+            default -> JsonMapper.builder().build();
+        };
+        planets = IntStream.range(0, size)
+                .mapToObj(i -> new PlanetView(i + 1L, "planet-" + i, CLIMATES[i % CLIMATES.length], TERRAINS[i % TERRAINS.length]))
+                .toList();
+        encoded = mapper.writeValueAsBytes(planets);
+        System.out.printf("%n%s, %d planets: %d bytes (%.1f per planet)%n",
+                format, size, encoded.length, (double) encoded.length / size);
+    }
+
+    @Benchmark
+    public byte[] encode() {
+        return mapper.writeValueAsBytes(planets);
+    }
+
+    @Benchmark
+    public PlanetView[] decode() {
+        return mapper.readValue(encoded, PlanetView[].class);
+    }
+}
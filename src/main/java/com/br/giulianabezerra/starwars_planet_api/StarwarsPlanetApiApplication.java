@@ -2,8 +2,10 @@ package com.br.giulianabezerra.starwars_planet_api;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class StarwarsPlanetApiApplication {
 
 	public static void main(String[] args) {
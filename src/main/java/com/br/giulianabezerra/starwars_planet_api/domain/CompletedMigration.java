@@ -0,0 +1,38 @@
+package com.br.giulianabezerra.starwars_planet_api.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+import java.time.Instant;
+
+/**
+ * A data migration run by the application that has finished and must not run again.
+ */
+@Entity
+@Table(name = "planet_migrations")
+class CompletedMigration {
+
+    @Id
+    private String name;
+
+    @Column(nullable = false)
+    private Instant completedAt;
+
+    protected CompletedMigration() {
+    }
+
+    CompletedMigration(String name, Instant completedAt) {
+        this.name = name;
+        this.completedAt = completedAt;
+    }
+
+    String getName() {
+        return name;
+    }
+
+    Instant getCompletedAt() {
+        return completedAt;
+    }
+}
@@ -0,0 +1,6 @@
+package com.br.giulianabezerra.starwars_planet_api.domain;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+interface CompletedMigrationRepository extends JpaRepository<CompletedMigration, String> {
+}
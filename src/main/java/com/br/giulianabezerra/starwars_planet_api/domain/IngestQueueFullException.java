@@ -0,0 +1,22 @@
+package com.br.giulianabezerra.starwars_planet_api.domain;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * 429 asking the client to retry: the ingest queue is full or shutting down.
+ */
+public class IngestQueueFullException extends ResponseStatusException {
+
+    public IngestQueueFullException() {
+        super(HttpStatus.TOO_MANY_REQUESTS, "Ingest queue is full, retry later");
+    }
+
+    @Override
+    public HttpHeaders getHeaders() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, "1");
+        return headers;
+    }
+}
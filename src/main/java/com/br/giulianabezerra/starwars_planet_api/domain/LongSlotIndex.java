@@ -0,0 +1,85 @@
+package com.br.giulianabezerra.starwars_planet_api.domain;
+
+/**
+ * Read-only open-addressing map from a {@code long} key to an {@code int} slot,
+ * with linear probing and no boxing. Tables are kept at most 70% full.
+ */
+final class LongSlotIndex {
+    private static final long GOLDEN_RATIO = 0x9E3779B97F4A7C15L;
+
+    private final long[] keys;
+    // slot + 1, so that 0 marks an empty bucket
+    private final int[] slots;
+    private final int mask;
+    private final int shift;
+
+    /**
+     * Maps each key to its position in the array; keys must be distinct.
+     */
+    LongSlotIndex(long[] keys) {
+        this(new long[capacity(keys.length)], new int[capacity(keys.length)]);
+        put(keys, 0);
+    }
+
+    private LongSlotIndex(long[] keys, int[] slots) {
+        this.keys = keys;
+        this.slots = slots;
+        this.mask = slots.length - 1;
+        this.shift = Long.numberOfLeadingZeros(slots.length - 1);
+    }
+
+    /**
+     * The index of {@code keys}, which start with the keys of this one. While the table
+     * still has room, it is copied and only the keys from {@code from} on are inserted.
+     */
+    LongSlotIndex with(long[] keys, int from) {
+        if (slots.length != capacity(keys.length)) {
+            return new LongSlotIndex(keys);
+        }
+        LongSlotIndex index = new LongSlotIndex(this.keys.clone(), slots.clone());
+        index.put(keys, from);
+        return index;
+    }
+
+    private void put(long[] keys, int from) {
+        for (int slot = from; slot < keys.length; slot++) {
+            int bucket = bucket(keys[slot]);
+            while (slots[bucket] != 0) {
+                bucket = (bucket + 1) & mask;
+            }
+            this.keys[bucket] = keys[slot];
+            this.slots[bucket] = slot + 1;
+        }
+    }
+
+    /**
+     * The slot of the key, or -1 when absent.
+     */
+    int get(long key) {
+        for (int bucket = bucket(key); ; bucket = (bucket + 1) & mask) {
+            int slot = slots[bucket];
+            if (slot == 0) {
+                return -1;
+            }
+            if (keys[bucket] == key) {
+                return slot - 1;
+            }
+        }
+    }
+
+    private int bucket(long key) {
+        // Fibonacci hashing spreads sequential ids over the whole table.
+        return (int) ((key * GOLDEN_RATIO) >>> shift) & mask;
+    }
+
+    /**
+     * Smallest power of two that holds {@code size} entries at most 70% full.
+     */
+    static int capacity(int size) {
+        int capacity = 2;
+        while (capacity * 0.7 < size) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+}
@@ -1,12 +1,23 @@
 package com.br.giulianabezerra.starwars_planet_api.domain;
 
 import com.br.giulianabezerra.starwars_planet_api.jacoco.ExcludeFromJacocoGeneratedReport;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
-import org.apache.commons.lang3.builder.EqualsBuilder;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
 
 @Entity
 @Table(name = "planets")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class Planet {
 
     @Id
@@ -25,6 +36,30 @@ public class Planet {
     @Column(nullable = false)
     private String terrain;
 
+    /**
+     * Advanced by Hibernate on every update; it tags the planet's representation for conditional reads.
+     */
+    @JsonIgnore
+    @Version
+    @ColumnDefault("0")
+    private Long version;
+
+    @JsonIgnore
+    @ElementCollection
+    @CollectionTable(name = "planet_terrain_tags", joinColumns = @JoinColumn(name = "planet_id"),
+            indexes = @Index(name = "idx_planet_terrain_tags_tag", columnList = "tag, planet_id"))
+    @Column(name = "tag", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private Set<String> terrainTags = new HashSet<>();
+
+    @JsonIgnore
+    @ElementCollection
+    @CollectionTable(name = "planet_climate_tags", joinColumns = @JoinColumn(name = "planet_id"),
+            indexes = @Index(name = "idx_planet_climate_tags_tag", columnList = "tag, planet_id"))
+    @Column(name = "tag", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private Set<String> climateTags = new HashSet<>();
+
     public Planet(String name, String climate, String terrain) {
         this.name = name;
         this.climate = climate;
@@ -78,9 +113,46 @@ public class Planet {
         this.terrain = terrain;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    /**
+     * Rebuilds the terrain/climate tag index from the comma-separated columns.
+     */
+    @PrePersist
+    void indexTags() {
+        terrainTags.clear();
+        terrainTags.addAll(PlanetTags.split(terrain));
+        climateTags.clear();
+        climateTags.addAll(PlanetTags.split(climate));
+    }
+
+    /**
+     * Compares the columns field by field; the tag sets are derived from them.
+     */
     @Override
     public boolean equals(Object obj) {
-        return EqualsBuilder.reflectionEquals(obj, this);
+        if (this == obj) {
+            return true;
+        }
+        return obj instanceof Planet other
+                && Objects.equals(id, other.id)
+                && Objects.equals(name, other.name)
+                && Objects.equals(climate, other.climate)
+                && Objects.equals(terrain, other.terrain);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = Objects.hashCode(id);
+        result = 31 * result + Objects.hashCode(name);
+        result = 31 * result + Objects.hashCode(climate);
+        return 31 * result + Objects.hashCode(terrain);
     }
 
     @ExcludeFromJacocoGeneratedReport
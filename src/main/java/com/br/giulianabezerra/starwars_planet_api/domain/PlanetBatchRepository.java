@@ -0,0 +1,15 @@
+package com.br.giulianabezerra.starwars_planet_api.domain;
+
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+public interface PlanetBatchRepository {
+
+    /**
+     * Inserts all planets as a single JDBC batch and sets their generated ids.
+     * Either every planet is inserted or, on a constraint violation, none is.
+     */
+    @Transactional
+    void insertAll(List<Planet> planets);
+}
@@ -0,0 +1,76 @@
+package com.br.giulianabezerra.starwars_planet_api.domain;
+
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Hibernate disables insert batching for {@code IDENTITY} ids, so batches are
+ * written with plain JDBC. On MySQL, {@code rewriteBatchedStatements} turns each
+ * batch into one multi-row INSERT that still returns every generated id.
+ */
+class PlanetBatchRepositoryImpl implements PlanetBatchRepository {
+    private static final String INSERT_PLANET = "INSERT INTO planets (name, climate, terrain, version) VALUES (?, ?, ?, 0)";
+    private static final String INSERT_TERRAIN_TAG = "INSERT INTO planet_terrain_tags (planet_id, tag) VALUES (?, ?)";
+    private static final String INSERT_CLIMATE_TAG = "INSERT INTO planet_climate_tags (planet_id, tag) VALUES (?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    PlanetBatchRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void insertAll(List<Planet> planets) {
+        if (planets.isEmpty()) {
+            return;
+        }
+
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+                connection -> connection.prepareStatement(INSERT_PLANET, new String[]{"id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        Planet planet = planets.get(i);
+                        ps.setString(1, planet.getName());
+                        ps.setString(2, planet.getClimate());
+                        ps.setString(3, planet.getTerrain());
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return planets.size();
+                    }
+                },
+                keyHolder);
+
+        List<Map<String, Object>> keys = keyHolder.getKeyList();
+        for (int i = 0; i < planets.size(); i++) {
+            Number id = (Number) keys.get(i).values().iterator().next();
+            planets.get(i).setId(id.longValue());
+            planets.get(i).setVersion(0L);
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_TERRAIN_TAG, tagRows(planets, Planet::getTerrain));
+        jdbcTemplate.batchUpdate(INSERT_CLIMATE_TAG, tagRows(planets, Planet::getClimate));
+    }
+
+    private static List<Object[]> tagRows(List<Planet> planets, Function<Planet, String> column) {
+        List<Object[]> rows = new ArrayList<>();
+        for (Planet planet : planets) {
+            for (String tag : PlanetTags.split(column.apply(planet))) {
+                rows.add(new Object[]{planet.getId(), tag});
+            }
+        }
+        return rows;
+    }
+}
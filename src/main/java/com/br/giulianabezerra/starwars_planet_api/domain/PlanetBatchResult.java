@@ -0,0 +1,26 @@
+package com.br.giulianabezerra.starwars_planet_api.domain;
+
+import java.util.List;
+
+/**
+ * Outcome of a batch create, one item per planet in request order.
+ */
+public record PlanetBatchResult(List<Item> items) {
+
+    public enum Status { CREATED, CONFLICT, INVALID }
+
+    public record Item(int index, Status status, Planet planet, String error) {
+
+        static Item created(int index, Planet planet) {
+            return new Item(index, Status.CREATED, planet, null);
+        }
+
+        static Item failed(int index, Status status, String error) {
+            return new Item(index, status, null, error);
+        }
+    }
+
+    public boolean allCreated() {
+        return items.stream().allMatch(item -> item.status() == Status.CREATED);
+    }
+}
@@ -0,0 +1,326 @@
+package com.br.giulianabezerra.starwars_planet_api.domain;
+
+import com.br.giulianabezerra.starwars_planet_api.jdbc.ConsistencyTokens;
+import com.br.giulianabezerra.starwars_planet_api.jdbc.PrimaryReads;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Read-through cache of planets by id, with a name to id index in front of it.
+ * Entries are immutable views, bounded in size and expired after {@code planets.cache.ttl}.
+ * It also keeps the facet counts and the list pages of recently asked filters.
+ * Hit, miss and eviction counts are published as the {@code cache.*} meters.
+ */
+@Component
+public class PlanetCache {
+    private static final long FACETS_MAXIMUM_SIZE = 1000;
+    private static final int EVICTION_STRIPES = 4096;
+
+    private final AsyncCache<Long, PlanetView> loadingById;
+    private final Cache<Long, PlanetView> planetsById;
+    private final Cache<String, Long> idsByName;
+    private final Cache<PlanetFilter, Versioned<PlanetFacets>> facets;
+    private final Cache<PageKey, Versioned<PlanetPage>> pages;
+    private final Counter idLeaders;
+    private final Counter idFollowers;
+    private final Counter idTimeouts;
+    private final Duration idMaxWait;
+    private final SingleFlight<Versioned<String>, Optional<PlanetView>> nameFlights;
+    private final SingleFlight<Versioned<PlanetFilter>, PlanetFacets> facetFlights;
+    private final SingleFlight<Versioned<PageKey>, PlanetPage> pageFlights;
+    private final AtomicLong version = new AtomicLong();
+    private final AtomicLong generation = new AtomicLong();
+    // The generation each stripe of ids and names was last evicted at; sharing a stripe only costs a refill.
+    private final AtomicLongArray evictedAt = new AtomicLongArray(EVICTION_STRIPES);
+    private volatile long allEvictedAt;
+    private volatile long versionChangedAt;
+    private final ConsistencyTokens consistencyTokens;
+
+    public PlanetCache(@Value("${planets.cache.maximum-size:10000}") long maximumSize,
+                       @Value("${planets.cache.ttl:10m}") Duration ttl,
+                       @Value("${planets.facets.ttl:5s}") Duration facetsTtl,
+                       @Value("${planets.pages.maximum-rows:100000}") long pagesMaximumRows,
+                       @Value("${planets.pages.ttl:5s}") Duration pagesTtl,
+                       @Value("${planets.singleflight.max-wait:2s}") Duration singleFlightMaxWait,
+                       ConsistencyTokens consistencyTokens,
+                       MeterRegistry meterRegistry) {
+        this.consistencyTokens = consistencyTokens;
+        this.loadingById = Caffeine.newBuilder().maximumSize(maximumSize).expireAfterWrite(ttl).recordStats().buildAsync();
+        this.planetsById = loadingById.synchronous();
+        this.idsByName = Caffeine.newBuilder().maximumSize(maximumSize).expireAfterWrite(ttl).recordStats().build();
+        CaffeineCacheMetrics.monitor(meterRegistry, loadingById, "planets.byId");
+        this.facets = Caffeine.newBuilder().maximumSize(FACETS_MAXIMUM_SIZE).expireAfterWrite(facetsTtl).recordStats().build();
+        CaffeineCacheMetrics.monitor(meterRegistry, idsByName, "planets.byName");
+        // Bounded by the planets held rather than the pages: a page of 100 weighs as much as 100 lookups.
+        this.pages = Caffeine.newBuilder()
+                .maximumWeight(pagesMaximumRows)
+                .weigher((PageKey key, Versioned<PlanetPage> page) -> page.value().planets().size() + 1)
+                .expireAfterWrite(pagesTtl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, facets, "planets.facets");
+        CaffeineCacheMetrics.monitor(meterRegistry, pages, "planets.pages");
+        this.idLeaders = SingleFlight.calls(meterRegistry, "findById", "leader");
+        this.idFollowers = SingleFlight.calls(meterRegistry, "findById", "follower");
+        this.idTimeouts = SingleFlight.timeouts(meterRegistry, "findById");
+        this.idMaxWait = singleFlightMaxWait;
+        this.nameFlights = new SingleFlight<>("findByName", singleFlightMaxWait, meterRegistry);
+        this.facetFlights = new SingleFlight<>("facets", singleFlightMaxWait, meterRegistry);
+        this.pageFlights = new SingleFlight<>("findAll", singleFlightMaxWait, meterRegistry);
+    }
+
+    public Optional<PlanetView> findById(Long id, Function<Long, Optional<PlanetView>> loader) {
+        if (PrimaryReads.isActive()) {
+            return loader.apply(id);
+        }
+        long loadedAt = generation.get();
+        CompletableFuture<PlanetView> loading = new CompletableFuture<>();
+        CompletableFuture<PlanetView> planet = loadingById.get(id, (key, executor) -> loading);
+        // Concurrent misses for the same id wait for this one load instead of querying again.
+        if (planet == loading) {
+            idLeaders.increment();
+            try {
+                loading.complete(loader.apply(id).orElse(null));
+            } catch (RuntimeException | Error ex) {
+                loading.completeExceptionally(ex);
+                throw ex;
+            }
+            PlanetView loaded = loading.getNow(null);
+            if (replicaMayLag() || loaded != null && evictedSince(loaded.id(), loaded.name(), loadedAt)) {
+                loadingById.asMap().remove(id, loading);
+            }
+        } else if (!planet.isDone()) {
+            idFollowers.increment();
+        }
+        // Like SingleFlight: a follower stuck behind a slow load gives up and loads it itself.
+        try {
+            return Optional.ofNullable(planet.get(idMaxWait.toNanos(), TimeUnit.NANOSECONDS));
+        } catch (TimeoutException ex) {
+            idTimeouts.increment();
+            return loader.apply(id);
+        } catch (ExecutionException ex) {
+            throw ex.getCause() instanceof RuntimeException cause ? cause : new IllegalStateException(ex.getCause());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for findById", ex);
+        }
+    }
+
+    public Optional<PlanetView> findByName(String name, Function<String, Optional<PlanetView>> loader) {
+        if (PrimaryReads.isActive()) {
+            return loader.apply(name);
+        }
+        Long id = idsByName.getIfPresent(name);
+        PlanetView planet = id == null ? null : planetsById.getIfPresent(id);
+        if (planet != null) {
+            return Optional.of(planet);
+        }
+
+        long loadedAt = generation.get();
+        // Keyed like versioned(), and case-insensitively as the name column compares names.
+        Versioned<String> flight = new Versioned<>(version.get(), name.toLowerCase(Locale.ROOT));
+        Optional<PlanetView> loaded = nameFlights.run(flight, () -> loader.apply(name));
+        loaded.filter(found -> found.id() != null).ifPresent(found -> put(name, found, loadedAt));
+        return loaded;
+    }
+
+    /** Returns the cached planets among {@code ids}, leaving the misses for the caller to load in bulk. */
+    public Map<Long, PlanetView> getAllPresent(Collection<Long> ids) {
+        if (PrimaryReads.isActive()) {
+            return Map.of();
+        }
+        return planetsById.getAllPresent(ids);
+    }
+
+    /** Returns the cached planets among {@code names}, keyed by the name asked for. */
+    public Map<String, PlanetView> getAllPresentByName(Collection<String> names) {
+        if (PrimaryReads.isActive()) {
+            return Map.of();
+        }
+        Map<String, Long> ids = idsByName.getAllPresent(names);
+        Map<Long, PlanetView> planets = planetsById.getAllPresent(ids.values());
+        Map<String, PlanetView> found = new HashMap<>();
+        ids.forEach((name, id) -> {
+            PlanetView planet = planets.get(id);
+            if (planet != null) {
+                found.put(name, planet);
+            }
+        });
+        return found;
+    }
+
+    /**
+     * Caches a planet loaded outside of the read-through methods, unless its id or name
+     * was evicted since {@code loadedAt}, the {@link #generation()} read before loading it.
+     */
+    public void put(PlanetView planet, long loadedAt) {
+        put(planet.name(), planet, loadedAt);
+    }
+
+    /**
+     * Put first and check after: either the check sees the write that raced the load
+     * and takes the entry back, or the put came first and the write's eviction drops it.
+     */
+    private void put(String name, PlanetView planet, long loadedAt) {
+        if (PrimaryReads.isActive() || replicaMayLag()) {
+            return;
+        }
+        planetsById.put(planet.id(), planet);
+        idsByName.put(name, planet.id());
+        if (evictedSince(planet.id(), name, loadedAt)) {
+            planetsById.asMap().remove(planet.id(), planet);
+            idsByName.asMap().remove(name, planet.id());
+        }
+    }
+
+    public void evictName(String name) {
+        markEvicted(nameKey(name));
+        idsByName.invalidate(name);
+    }
+
+    public void evictId(Long id) {
+        markEvicted(id);
+        PlanetView cached = planetsById.getIfPresent(id);
+        planetsById.invalidate(id);
+        if (cached != null) {
+            idsByName.invalidate(cached.name());
+        }
+    }
+
+    /**
+     * Facet counts per filter. They are kept for {@code planets.facets.ttl} at most, which
+     * also bounds how stale they get after writes made behind the application's back.
+     */
+    public PlanetFacets facets(PlanetFilter filter, Function<PlanetFilter, PlanetFacets> loader) {
+        return versioned(facets, facetFlights, filter.normalized(), () -> loader.apply(filter));
+    }
+
+    /**
+     * One page of the planet list, keyed by the normalized filter, cursor and limit.
+     * Like facets, pages are kept for {@code planets.pages.ttl} at most.
+     */
+    public PlanetPage page(PlanetFilter filter, Long cursor, int limit, Supplier<PlanetPage> loader) {
+        return versioned(pages, pageFlights, new PageKey(filter.normalized(), cursor, limit), loader);
+    }
+
+    /**
+     * Concurrent misses share one load, but only with loads started at the same version:
+     * a load that started before a write must not answer a request made after it.
+     */
+    private <K, V> V versioned(Cache<K, Versioned<V>> cache, SingleFlight<Versioned<K>, V> flights, K key, Supplier<V> loader) {
+        if (PrimaryReads.isActive()) {
+            return loader.get();
+        }
+        long current = version.get();
+        Versioned<V> cached = cache.getIfPresent(key);
+        if (cached != null && cached.version() == current) {
+            return cached.value();
+        }
+        V loaded = flights.run(new Versioned<>(current, key), loader);
+        cache.put(key, new Versioned<>(current, loaded));
+        return loaded;
+    }
+
+    /**
+     * Drops the facets and pages; called on every write. The version moves now and again
+     * after the transaction commits, so a result loaded while the write was in flight is
+     * never kept.
+     */
+    public void evictFilterResults() {
+        bumpVersion();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    bumpVersion();
+                }
+            });
+        }
+    }
+
+    /**
+     * The write version: it only moves forward, on every write made through the application.
+     */
+    public long version() {
+        return version.get();
+    }
+
+    /** When {@link #version()} last moved, in epoch milliseconds. */
+    public long versionChangedAt() {
+        return versionChangedAt;
+    }
+
+    /** Advances on every eviction; read it before loading a planet to {@link #put} it. */
+    public long generation() {
+        return generation.get();
+    }
+
+    /** Marked before the entry is invalidated, so a fill checking after its put sees one or the other. */
+    private void markEvicted(Object key) {
+        evictedAt.accumulateAndGet(stripe(key), generation.incrementAndGet(), Math::max);
+    }
+
+    private boolean evictedSince(Long id, String name, long loadedAt) {
+        return allEvictedAt > loadedAt
+                || evictedAt.get(stripe(id)) > loadedAt
+                || evictedAt.get(stripe(nameKey(name))) > loadedAt;
+    }
+
+    private static int stripe(Object key) {
+        int hash = key.hashCode();
+        return (hash ^ (hash >>> 16)) & (EVICTION_STRIPES - 1);
+    }
+
+    /** Names are evicted the way the name column compares them. */
+    private static String nameKey(String name) {
+        return PlanetNameFilter.normalize(name);
+    }
+
+    /** Whether a replica may not show the last write yet; the same bound the list ETags use. */
+    private boolean replicaMayLag() {
+        return consistencyTokens.requiresPrimary(versionChangedAt);
+    }
+
+    private void bumpVersion() {
+        // Set before the version, so whoever reads the new version also reads its time.
+        versionChangedAt = System.currentTimeMillis();
+        version.incrementAndGet();
+        facets.invalidateAll();
+        pages.invalidateAll();
+    }
+
+    public void evictAll() {
+        allEvictedAt = generation.incrementAndGet();
+        planetsById.invalidateAll();
+        idsByName.invalidateAll();
+    }
+
+    private record PageKey(PlanetFilter filter, Long cursor, int limit) {
+    }
+
+    private record Versioned<V>(long version, V value) {
+    }
+}
@@ -0,0 +1,224 @@
+package com.br.giulianabezerra.starwars_planet_api.domain;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.UnaryOperator;
+
+/**
+ * Memory-resident serving mode, on with {@code planets.catalog.enabled}: the whole
+ * planet table is kept as a {@link PlanetCatalogSnapshot} and reads by id, by name
+ * and by filter are answered from it instead of JPA.
+ * <p>
+ * The catalog is loaded at startup and reloaded every {@code planets.catalog.refresh-interval},
+ * which picks up rows written by other nodes. Writes of this node go to the database
+ * first and are then applied by swapping in a changed copy of the snapshot, after
+ * the commit when a transaction is running. Until the first load, {@link #current()}
+ * is {@code null} and reads go to the database.
+ * <p>
+ * With {@code planets.catalog.snapshot-file} set, the catalog is also written to that
+ * file every {@code planets.catalog.snapshot-interval} and on shutdown. At startup
+ * the file is mapped and served from before the web server opens; whether it is
+ * still current is then checked in the background against the row count and the
+ * highest id, and the catalog reloaded from the database if not. Planets are only
+ * inserted and deleted, never updated, so the two tell a stale file apart.
+ * <p>
+ * Every snapshot swapped in, reloads included, advances {@link #version()}.
+ */
+@Component
+public class PlanetCatalog {
+    private static final Logger log = LoggerFactory.getLogger(PlanetCatalog.class);
+    private static final int LOAD_CHUNK = 10_000;
+
+    private final PlanetRepository repository;
+    private final boolean enabled;
+    private final @Nullable Path snapshotFile;
+    // Serializes the swaps; readers never take it.
+    private final ReentrantLock swapLock = new ReentrantLock();
+
+    private volatile @Nullable PlanetCatalogSnapshot snapshot;
+    private final AtomicLong version = new AtomicLong();
+    private volatile long versionChangedAt;
+    private volatile boolean loadedFromFile;
+    private volatile @Nullable PlanetCatalogSnapshot lastWritten;
+
+    public PlanetCatalog(PlanetRepository repository,
+                         @Value("${planets.catalog.enabled:false}") boolean enabled,
+                         @Value("${planets.catalog.snapshot-file:}") String snapshotFile,
+                         MeterRegistry meterRegistry) {
+        this.repository = repository;
+        this.enabled = enabled;
+        this.snapshotFile = snapshotFile.isBlank() ? null : Path.of(snapshotFile);
+        Gauge.builder("planets.catalog.size", this, catalog -> {
+                    PlanetCatalogSnapshot current = catalog.snapshot;
+                    return current == null ? 0 : current.size();
+                })
+                .description("Planets held by the in-memory catalog")
+                .register(meterRegistry);
+    }
+
+    /**
+     * The snapshot to read from, or {@code null} when the catalog is off or not loaded yet.
+     */
+    public @Nullable PlanetCatalogSnapshot current() {
+        return snapshot;
+    }
+
+    /** Advanced every time a snapshot is swapped in. */
+    public long version() {
+        return version.get();
+    }
+
+    /** When {@link #version()} last moved, in epoch milliseconds. */
+    public long versionChangedAt() {
+        return versionChangedAt;
+    }
+
+    /**
+     * Swaps in a snapshot, then advances the version: whoever reads the new version
+     * also reads the new snapshot.
+     */
+    private void publish(PlanetCatalogSnapshot next) {
+        snapshot = next;
+        versionChangedAt = System.currentTimeMillis();
+        version.incrementAndGet();
+    }
+
+    @PostConstruct
+    public void readSnapshotFile() {
+        if (!enabled || snapshotFile == null || !Files.exists(snapshotFile)) {
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            PlanetCatalogSnapshot read = PlanetCatalogFile.read(snapshotFile);
+            publish(read);
+            lastWritten = read;
+            loadedFromFile = true;
+            log.info("Read {} planets from {} in {} ms", read.size(), snapshotFile, (System.nanoTime() - start) / 1_000_000);
+        } catch (IOException | RuntimeException ex) {
+            log.warn("Ignoring catalog snapshot file {}", snapshotFile, ex);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (loadedFromFile) {
+            Thread.ofVirtual().name("planets-catalog-check").start(this::reloadIfStale);
+        } else {
+            reload();
+        }
+    }
+
+    /**
+     * Reloads the catalog when its row count or highest id differ from the database.
+     */
+    public boolean reloadIfStale() {
+        PlanetCatalogSnapshot current = snapshot;
+        if (current != null && current.size() == repository.count()
+                && current.maxId() == repository.findMaxId().orElse(0L)) {
+            return false;
+        }
+        log.info("Catalog snapshot is stale, reloading it from the database");
+        reload();
+        return true;
+    }
+
+    @Scheduled(fixedDelayString = "${planets.catalog.refresh-interval:10m}",
+            initialDelayString = "${planets.catalog.refresh-interval:10m}")
+    public void reload() {
+        if (!enabled) {
+            return;
+        }
+        swapLock.lock();
+        try {
+            List<PlanetView> planets = new ArrayList<>();
+            List<PlanetView> chunk;
+            Long cursor = null;
+            do {
+                chunk = repository.findPage(Specification.unrestricted(), cursor, LOAD_CHUNK);
+                planets.addAll(chunk);
+                cursor = chunk.isEmpty() ? cursor : chunk.getLast().id();
+            } while (chunk.size() == LOAD_CHUNK);
+            publish(PlanetCatalogSnapshot.of(planets));
+        } finally {
+            swapLock.unlock();
+        }
+    }
+
+    /**
+     * Writes the catalog to {@code planets.catalog.snapshot-file} if it changed since the last write.
+     */
+    @PreDestroy
+    @Scheduled(fixedDelayString = "${planets.catalog.snapshot-interval:5m}",
+            initialDelayString = "${planets.catalog.snapshot-interval:5m}")
+    public void writeSnapshotFile() {
+        PlanetCatalogSnapshot current = snapshot;
+        if (snapshotFile == null || current == null || current == lastWritten) {
+            return;
+        }
+        try {
+            PlanetCatalogFile.write(current, snapshotFile);
+            lastWritten = current;
+        } catch (IOException ex) {
+            log.warn("Failed to write catalog snapshot file {}", snapshotFile, ex);
+        }
+    }
+
+    public void put(Collection<PlanetView> planets) {
+        update(current -> current.with(planets));
+    }
+
+    public void remove(Collection<Long> ids) {
+        update(current -> current.without(ids));
+    }
+
+    private void update(UnaryOperator<PlanetCatalogSnapshot> change) {
+        if (snapshot == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    swap(change);
+                }
+            });
+        } else {
+            swap(change);
+        }
+    }
+
+    private void swap(UnaryOperator<PlanetCatalogSnapshot> change) {
+        swapLock.lock();
+        try {
+            PlanetCatalogSnapshot current = snapshot;
+            if (current != null) {
+                publish(change.apply(current));
+            }
+        } finally {
+            swapLock.unlock();
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.br.giulianabezerra.starwars_planet_api.domain;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Binary file holding a {@link PlanetCatalogSnapshot}, read back through a memory
+ * mapping. Layout, big-endian:
+ * <pre>
+ * int magic, int version, int planets, long max id
+ * int strings, then each climate/terrain string once
+ * per planet: long id, name, int climate index, int terrain index (-1 for null), long version
+ * long CRC32 of everything before it
+ * </pre>
+ * Strings are an unsigned short byte length followed by UTF-8. Files are written
+ * to a temporary file and moved into place, so readers never see a partial one.
+ */
+final class PlanetCatalogFile {
+    private static final int MAGIC = 0x504C4E54;
+    private static final int VERSION = 2;
+
+    private PlanetCatalogFile() {
+    }
+
+    static void write(PlanetCatalogSnapshot snapshot, Path file) throws IOException {
+        Map<String, Integer> strings = new HashMap<>();
+        List<String> dictionary = new ArrayList<>();
+        for (int slot = 0; slot < snapshot.size(); slot++) {
+            PlanetView planet = snapshot.view(slot);
+            for (String value : new String[]{planet.climate(), planet.terrain()}) {
+                if (value != null && strings.putIfAbsent(value, dictionary.size()) == null) {
+                    dictionary.add(value);
+                }
+            }
+        }
+
+        Path temporary = Files.createTempFile(file.toAbsolutePath().getParent(), file.getFileName().toString(), ".tmp");
+        try {
+            try (OutputStream stream = Files.newOutputStream(temporary);
+                 CheckedOutputStream checked = new CheckedOutputStream(new BufferedOutputStream(stream, 1 << 16), new CRC32());
+                 DataOutputStream out = new DataOutputStream(checked)) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeInt(snapshot.size());
+                out.writeLong(snapshot.maxId());
+                out.writeInt(dictionary.size());
+                for (String value : dictionary) {
+                    writeString(out, value);
+                }
+                for (int slot = 0; slot < snapshot.size(); slot++) {
+                    PlanetView planet = snapshot.view(slot);
+                    out.writeLong(planet.id());
+                    writeString(out, planet.name());
+                    out.writeInt(planet.climate() == null ? -1 : strings.get(planet.climate()));
+                    out.writeInt(planet.terrain() == null ? -1 : strings.get(planet.terrain()));
+                    out.writeLong(planet.version());
+                }
+                // The checksum is of the bytes so far; it is not part of itself.
+                out.writeLong(checked.getChecksum().getValue());
+            }
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    /**
+     * @throws IOException if the file cannot be read, or is not a complete snapshot of this version
+     */
+    static PlanetCatalogSnapshot read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < Long.BYTES || size > Integer.MAX_VALUE) {
+                throw new IOException("Not a catalog snapshot: " + file);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            CRC32 crc = new CRC32();
+            crc.update(buffer.slice(0, (int) size - Long.BYTES));
+            if (crc.getValue() != buffer.getLong((int) size - Long.BYTES)) {
+                throw new IOException("Corrupt catalog snapshot: " + file);
+            }
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                throw new IOException("Not a catalog snapshot of version " + VERSION + ": " + file);
+            }
+
+            int planets = buffer.getInt();
+            buffer.getLong();
+            byte[] scratch = new byte[0xFFFF];
+            String[] dictionary = new String[buffer.getInt()];
+            for (int i = 0; i < dictionary.length; i++) {
+                dictionary[i] = readString(buffer, scratch);
+            }
+            List<PlanetView> views = new ArrayList<>(planets);
+            for (int i = 0; i < planets; i++) {
+                long id = buffer.getLong();
+                String name = readString(buffer, scratch);
+                int climate = buffer.getInt();
+                int terrain = buffer.getInt();
+                long version = buffer.getLong();
+                views.add(new PlanetView(id, name,
+                        climate < 0 ? null : dictionary[climate],
+                        terrain < 0 ? null : dictionary[terrain],
+                        version));
+            }
+            return PlanetCatalogSnapshot.of(views);
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > 0xFFFF) {
+            throw new IOException("String too long for a catalog snapshot: " + bytes.length + " bytes");
+        }
+        out.writeShort(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer, byte[] scratch) {
+        int length = Short.toUnsignedInt(buffer.getShort());
+        buffer.get(scratch, 0, length);
+        return new String(scratch, 0, length, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,474 @@
+package com.br.giulianabezerra.starwars_planet_api.domain;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Immutable, column-oriented copy of the planet table that answers id, name and
+ * filter lookups from memory. Changes build a new snapshot.
+ * <p>
+ * Planets sit in slots ordered by id, one array per column. Ids are found through
+ * a {@link LongSlotIndex} and names through a hash table of slots that ignores case
+ * and accents, like the collation of the name column. Each terrain and climate tag has
+ * the slots carrying it: a bitset when the tag is common, a sorted slot array when
+ * it is rare, so that many rare tags do not cost a bitset each.
+ * <p>
+ * New planets get ids above every id present, so they are appended to copies of the
+ * columns and indexes instead of rebuilding them from every row.
+ */
+public final class PlanetCatalogSnapshot {
+    // A bitset costs size / 8 bytes, a slot array 4 bytes per planet: the break-even is one in 32.
+    private static final int DENSE_RATIO = 32;
+
+    private final long[] ids;
+    private final String[] names;
+    private final String[] climates;
+    private final String[] terrains;
+    private final long[] versions;
+    private final LongSlotIndex slotsById;
+    // slot + 1 by folded name hash, 0 marks an empty bucket
+    private final int[] slotsByName;
+    private final Map<String, TagSlots> terrainTags;
+    private final Map<String, TagSlots> climateTags;
+
+    private PlanetCatalogSnapshot(List<PlanetView> planets) {
+        int size = planets.size();
+        ids = new long[size];
+        names = new String[size];
+        climates = new String[size];
+        terrains = new String[size];
+        versions = new long[size];
+        // Climates and terrains repeat a lot; each row read from JDBC is its own string.
+        Map<String, String> canonical = new HashMap<>();
+        for (int slot = 0; slot < size; slot++) {
+            PlanetView planet = planets.get(slot);
+            ids[slot] = planet.id();
+            names[slot] = planet.name();
+            climates[slot] = planet.climate() == null ? null : canonical.computeIfAbsent(planet.climate(), Function.identity());
+            terrains[slot] = planet.terrain() == null ? null : canonical.computeIfAbsent(planet.terrain(), Function.identity());
+            versions[slot] = planet.version();
+        }
+        slotsById = new LongSlotIndex(ids);
+        slotsByName = nameTable(names);
+        terrainTags = tagTable(terrains);
+        climateTags = tagTable(climates);
+    }
+
+    private PlanetCatalogSnapshot(long[] ids, String[] names, String[] climates, String[] terrains, long[] versions,
+                                  LongSlotIndex slotsById, int[] slotsByName,
+                                  Map<String, TagSlots> terrainTags, Map<String, TagSlots> climateTags) {
+        this.ids = ids;
+        this.names = names;
+        this.climates = climates;
+        this.terrains = terrains;
+        this.versions = versions;
+        this.slotsById = slotsById;
+        this.slotsByName = slotsByName;
+        this.terrainTags = terrainTags;
+        this.climateTags = climateTags;
+    }
+
+    public static PlanetCatalogSnapshot of(Collection<PlanetView> planets) {
+        List<PlanetView> sorted = new ArrayList<>(planets);
+        sorted.sort(Comparator.comparing(PlanetView::id));
+        return new PlanetCatalogSnapshot(sorted);
+    }
+
+    /**
+     * A copy with the planets added, or replaced when their id is already present.
+     */
+    public PlanetCatalogSnapshot with(Collection<PlanetView> planets) {
+        PlanetView[] tail = tail(planets);
+        if (tail != null) {
+            return append(tail);
+        }
+        Set<Long> replaced = new HashSet<>();
+        planets.forEach(planet -> replaced.add(planet.id()));
+        List<PlanetView> merged = new ArrayList<>(ids.length + planets.size());
+        for (int slot = 0; slot < ids.length; slot++) {
+            if (!replaced.contains(ids[slot])) {
+                merged.add(view(slot));
+            }
+        }
+        merged.addAll(planets);
+        return of(merged);
+    }
+
+    /**
+     * The planets sorted by id when they all come after the last id, as new IDENTITY
+     * rows do, or {@code null} when one of them replaces or lands between present ids.
+     */
+    private PlanetView[] tail(Collection<PlanetView> planets) {
+        PlanetView[] tail = planets.toArray(PlanetView[]::new);
+        Arrays.sort(tail, Comparator.comparing(PlanetView::id));
+        long last = maxId();
+        for (PlanetView planet : tail) {
+            if (planet.id() <= last) {
+                return null;
+            }
+            last = planet.id();
+        }
+        return tail;
+    }
+
+    private PlanetCatalogSnapshot append(PlanetView[] tail) {
+        int from = ids.length;
+        int size = from + tail.length;
+        long[] appendedIds = Arrays.copyOf(ids, size);
+        String[] appendedNames = Arrays.copyOf(names, size);
+        String[] appendedClimates = Arrays.copyOf(climates, size);
+        String[] appendedTerrains = Arrays.copyOf(terrains, size);
+        long[] appendedVersions = Arrays.copyOf(versions, size);
+        Map<String, String> canonical = new HashMap<>();
+        for (int i = 0; i < tail.length; i++) {
+            PlanetView planet = tail[i];
+            appendedIds[from + i] = planet.id();
+            appendedNames[from + i] = planet.name();
+            appendedClimates[from + i] = planet.climate() == null ? null : canonical.computeIfAbsent(planet.climate(), Function.identity());
+            appendedTerrains[from + i] = planet.terrain() == null ? null : canonical.computeIfAbsent(planet.terrain(), Function.identity());
+            appendedVersions[from + i] = planet.version();
+        }
+        return new PlanetCatalogSnapshot(appendedIds, appendedNames, appendedClimates, appendedTerrains, appendedVersions,
+                slotsById.with(appendedIds, from),
+                nameTable(slotsByName, appendedNames, from),
+                tagTable(terrainTags, appendedTerrains, from),
+                tagTable(climateTags, appendedClimates, from));
+    }
+
+    public PlanetCatalogSnapshot without(Collection<Long> removedIds) {
+        Set<Long> removed = new HashSet<>(removedIds);
+        List<PlanetView> kept = new ArrayList<>(ids.length);
+        for (int slot = 0; slot < ids.length; slot++) {
+            if (!removed.contains(ids[slot])) {
+                kept.add(view(slot));
+            }
+        }
+        return new PlanetCatalogSnapshot(kept);
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    public Optional<PlanetView> findById(long id) {
+        int slot = slotsById.get(id);
+        return slot < 0 ? Optional.empty() : Optional.of(view(slot));
+    }
+
+    public Optional<PlanetView> findByName(String name) {
+        String folded = PlanetNameFilter.normalize(name);
+        int mask = slotsByName.length - 1;
+        for (int bucket = nameBucket(folded, mask); ; bucket = (bucket + 1) & mask) {
+            int slot = slotsByName[bucket] - 1;
+            if (slot < 0) {
+                return Optional.empty();
+            }
+            if (PlanetNameFilter.normalize(names[slot]).equals(folded)) {
+                return Optional.of(view(slot));
+            }
+        }
+    }
+
+    /**
+     * Up to {@code limit} planets matching the filter with ids above the cursor, in id order.
+     */
+    public List<PlanetView> findPage(PlanetFilter filter, Long cursor, int limit) {
+        Selection selection = select(filter);
+        List<PlanetView> page = new ArrayList<>(Math.min(limit, 128));
+        int slot = firstSlotAfter(cursor);
+        while (page.size() < limit && (slot = selection.next(slot)) >= 0) {
+            page.add(view(slot++));
+        }
+        return page;
+    }
+
+    public long count(PlanetFilter filter) {
+        Selection selection = select(filter);
+        if (selection.isAll()) {
+            return ids.length;
+        }
+        if (selection.isSingleTag()) {
+            return selection.driver.size();
+        }
+        long count = 0;
+        for (int slot = selection.next(0); slot >= 0; slot = selection.next(slot + 1)) {
+            count++;
+        }
+        return count;
+    }
+
+    long maxId() {
+        return ids.length == 0 ? 0 : ids[ids.length - 1];
+    }
+
+    PlanetView view(int slot) {
+        return new PlanetView(ids[slot], names[slot], climates[slot], terrains[slot], versions[slot]);
+    }
+
+    private int firstSlotAfter(Long cursor) {
+        if (cursor == null) {
+            return 0;
+        }
+        int index = Arrays.binarySearch(ids, cursor);
+        return index >= 0 ? index + 1 : -index - 1;
+    }
+
+    private Selection select(PlanetFilter filter) {
+        if (filter.match() == PlanetFilter.Match.CONTAINS) {
+            return new Selection(null, List.of(), filter.climate(), filter.terrain());
+        }
+        List<TagSlots> tags = new ArrayList<>();
+        for (String tag : PlanetTags.split(filter.terrain())) {
+            tags.add(terrainTags.getOrDefault(tag, TagSlots.NONE));
+        }
+        for (String tag : PlanetTags.split(filter.climate())) {
+            tags.add(climateTags.getOrDefault(tag, TagSlots.NONE));
+        }
+        if (tags.isEmpty()) {
+            return new Selection(null, List.of(), null, null);
+        }
+        // The rarest tag drives the scan; the others are membership checks.
+        tags.sort(Comparator.comparingInt(TagSlots::size));
+        return new Selection(tags.getFirst(), tags.subList(1, tags.size()), null, null);
+    }
+
+    /**
+     * Walks the slots of the rarest tag, or all slots, keeping those that pass the other conditions.
+     */
+    private final class Selection {
+        private final TagSlots driver;
+        private final List<TagSlots> others;
+        private final String climate;
+        private final String terrain;
+
+        Selection(TagSlots driver, List<TagSlots> others, String climate, String terrain) {
+            this.driver = driver;
+            this.others = others;
+            this.climate = climate;
+            this.terrain = terrain;
+        }
+
+        boolean isAll() {
+            return driver == null && climate == null && terrain == null;
+        }
+
+        boolean isSingleTag() {
+            return driver != null && others.isEmpty();
+        }
+
+        int next(int from) {
+            for (int slot = driverNext(from); slot >= 0; slot = driverNext(slot + 1)) {
+                if (accepts(slot)) {
+                    return slot;
+                }
+            }
+            return -1;
+        }
+
+        private int driverNext(int from) {
+            if (driver != null) {
+                return driver.next(from);
+            }
+            return from < ids.length ? from : -1;
+        }
+
+        private boolean accepts(int slot) {
+            for (TagSlots tag : others) {
+                if (!tag.contains(slot)) {
+                    return false;
+                }
+            }
+            return containsIgnoreCase(climates[slot], climate) && containsIgnoreCase(terrains[slot], terrain);
+        }
+    }
+
+    private static boolean containsIgnoreCase(String value, String part) {
+        if (part == null) {
+            return true;
+        }
+        if (value == null) {
+            return false;
+        }
+        for (int from = 0; from <= value.length() - part.length(); from++) {
+            if (value.regionMatches(true, from, part, 0, part.length())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int[] nameTable(String[] names) {
+        return putNames(new int[LongSlotIndex.capacity(names.length)], names, 0);
+    }
+
+    /**
+     * The name table of {@code names}, which start with the names of {@code table}:
+     * a copy with the names from {@code from} on, or a new table once it is too full.
+     */
+    private static int[] nameTable(int[] table, String[] names, int from) {
+        if (table.length != LongSlotIndex.capacity(names.length)) {
+            return nameTable(names);
+        }
+        return putNames(table.clone(), names, from);
+    }
+
+    private static int[] putNames(int[] table, String[] names, int from) {
+        int mask = table.length - 1;
+        for (int slot = from; slot < names.length; slot++) {
+            int bucket = nameBucket(PlanetNameFilter.normalize(names[slot]), mask);
+            while (table[bucket] != 0) {
+                bucket = (bucket + 1) & mask;
+            }
+            table[bucket] = slot + 1;
+        }
+        return table;
+    }
+
+    /**
+     * The bucket of a name folded by {@link PlanetNameFilter#normalize}. Names such as
+     * "planet-1", "planet-2" have consecutive string hashes, which would pile up in one
+     * run of buckets, so the bucket comes from the top bits of a Fibonacci product
+     * instead of the low bits.
+     */
+    private static int nameBucket(String folded, int mask) {
+        return (folded.hashCode() * 0x9E3779B9) >>> Integer.numberOfLeadingZeros(mask);
+    }
+
+    private static Map<String, TagSlots> tagTable(String[] column) {
+        Map<String, SlotList> slotsByTag = slotsByTag(column, 0);
+        Map<String, TagSlots> table = new HashMap<>(slotsByTag.size() * 2);
+        slotsByTag.forEach((tag, slots) -> table.put(tag, slots.toTagSlots(column.length)));
+        return table;
+    }
+
+    /**
+     * The tag table of {@code column}, which starts with the rows of {@code table}: the
+     * tags of the rows from {@code from} on are added, the other tags are shared.
+     */
+    private static Map<String, TagSlots> tagTable(Map<String, TagSlots> table, String[] column, int from) {
+        Map<String, SlotList> added = slotsByTag(column, from);
+        if (added.isEmpty()) {
+            return table;
+        }
+        Map<String, TagSlots> extended = new HashMap<>(table);
+        added.forEach((tag, slots) -> extended.put(tag, extended.getOrDefault(tag, TagSlots.NONE).with(slots, column.length)));
+        return extended;
+    }
+
+    private static Map<String, SlotList> slotsByTag(String[] column, int from) {
+        Map<String, SlotList> slotsByTag = new HashMap<>();
+        // Values are canonical strings that repeat, so each is split once.
+        Map<String, Set<String>> tagsByValue = new HashMap<>();
+        for (int slot = from; slot < column.length; slot++) {
+            Set<String> tags = column[slot] == null ? Set.of() : tagsByValue.computeIfAbsent(column[slot], PlanetTags::split);
+            for (String tag : tags) {
+                slotsByTag.computeIfAbsent(tag, key -> new SlotList()).add(slot);
+            }
+        }
+        return slotsByTag;
+    }
+
+    private sealed interface TagSlots {
+        TagSlots NONE = new Sparse(new int[0]);
+
+        int size();
+
+        boolean contains(int slot);
+
+        /**
+         * The first slot at or after {@code from}, or -1.
+         */
+        int next(int from);
+
+        /**
+         * A copy with the {@code added} slots, which all come after the present ones.
+         */
+        TagSlots with(SlotList added, int planets);
+    }
+
+    private record Dense(BitSet slots, int size) implements TagSlots {
+        @Override
+        public boolean contains(int slot) {
+            return slots.get(slot);
+        }
+
+        @Override
+        public int next(int from) {
+            return slots.nextSetBit(from);
+        }
+
+        @Override
+        public TagSlots with(SlotList added, int planets) {
+            BitSet bits = (BitSet) slots.clone();
+            for (int i = 0; i < added.size; i++) {
+                bits.set(added.slots[i]);
+            }
+            return new Dense(bits, size + added.size);
+        }
+    }
+
+    private record Sparse(int[] slots) implements TagSlots {
+        @Override
+        public int size() {
+            return slots.length;
+        }
+
+        @Override
+        public boolean contains(int slot) {
+            return Arrays.binarySearch(slots, slot) >= 0;
+        }
+
+        @Override
+        public int next(int from) {
+            int index = Arrays.binarySearch(slots, from);
+            if (index < 0) {
+                index = -index - 1;
+            }
+            return index < slots.length ? slots[index] : -1;
+        }
+
+        @Override
+        public TagSlots with(SlotList added, int planets) {
+            int[] merged = Arrays.copyOf(slots, slots.length + added.size);
+            System.arraycopy(added.slots, 0, merged, slots.length, added.size);
+            return SlotList.toTagSlots(merged, merged.length, planets);
+        }
+    }
+
+    private static final class SlotList {
+        private int[] slots = new int[4];
+        private int size;
+
+        void add(int slot) {
+            if (size == slots.length) {
+                slots = Arrays.copyOf(slots, size * 2);
+            }
+            slots[size++] = slot;
+        }
+
+        TagSlots toTagSlots(int planets) {
+            return toTagSlots(slots, size, planets);
+        }
+
+        static TagSlots toTagSlots(int[] slots, int size, int planets) {
+            if ((long) size * DENSE_RATIO < planets) {
+                return new Sparse(slots.length == size ? slots : Arrays.copyOf(slots, size));
+            }
+            BitSet bits = new BitSet(planets);
+            for (int i = 0; i < size; i++) {
+                bits.set(slots[i]);
+            }
+            return new Dense(bits, size);
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.br.giulianabezerra.starwars_planet_api.domain;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Map;
+
+public interface PlanetFacetRepository {
+
+    /**
+     * Counts the planets matching the filter per tag of {@code collection}, with a
+     * GROUP BY on the tag table. Ordered by count, most frequent first, then by tag.
+     */
+    Map<String, Long> countByTag(String collection, Specification<Planet> filter);
+}
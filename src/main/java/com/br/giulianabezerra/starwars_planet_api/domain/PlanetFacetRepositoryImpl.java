@@ -0,0 +1,42 @@
+package com.br.giulianabezerra.starwars_planet_api.domain;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+class PlanetFacetRepositoryImpl implements PlanetFacetRepository {
+    private final EntityManager entityManager;
+
+    PlanetFacetRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public Map<String, Long> countByTag(String collection, Specification<Planet> filter) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = builder.createTupleQuery();
+        Root<Planet> planet = query.from(Planet.class);
+        Join<Planet, String> tag = planet.join(collection);
+        Expression<Long> count = builder.count(planet);
+        query.multiselect(tag, count).groupBy(tag).orderBy(builder.desc(count), builder.asc(tag));
+        Predicate predicate = filter.toPredicate(planet, query, builder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (Tuple row : entityManager.createQuery(query).getResultList()) {
+            counts.put(row.get(0, String.class), row.get(1, Long.class));
+        }
+        return counts;
+    }
+}
@@ -0,0 +1,9 @@
+package com.br.giulianabezerra.starwars_planet_api.domain;
+
+import java.util.Map;
+
+/**
+ * Number of planets per climate tag and per terrain tag, most frequent first.
+ */
+public record PlanetFacets(Map<String, Long> climate, Map<String, Long> terrain) {
+}
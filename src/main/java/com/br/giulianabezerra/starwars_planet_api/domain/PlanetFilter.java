@@ -0,0 +1,85 @@
+package com.br.giulianabezerra.starwars_planet_api.domain;
+
+import org.springframework.data.jpa.domain.PredicateSpecification;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Locale;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static com.br.giulianabezerra.starwars_planet_api.domain.QueryBuilder.hasTags;
+import static com.br.giulianabezerra.starwars_planet_api.domain.QueryBuilder.makeQuery;
+import static com.br.giulianabezerra.starwars_planet_api.domain.QueryBuilder.matching;
+import static com.br.giulianabezerra.starwars_planet_api.domain.QueryBuilder.memberOfTags;
+
+/**
+ * Terrain/climate filter of the planet list.
+ * <p>
+ * {@link Match#TAG} matches whole tags through the indexed tag tables; every tag of
+ * the filter must be present. {@link Match#CONTAINS} keeps the original
+ * case-insensitive substring match, which scans the planets table.
+ */
+public record PlanetFilter(String terrain, String climate, Match match) {
+
+    public enum Match { TAG, CONTAINS }
+
+    public PlanetFilter {
+        if (match == null) {
+            match = Match.TAG;
+        }
+    }
+
+    public static PlanetFilter of(String terrain, String climate) {
+        return new PlanetFilter(terrain, climate, Match.TAG);
+    }
+
+    public boolean isEmpty() {
+        return (terrain == null || terrain.isBlank()) && (climate == null || climate.isBlank());
+    }
+
+    /**
+     * The same filter spelled one way, for use as a cache key: sorted lower-case tags
+     * for {@link Match#TAG}, lower-case values for {@link Match#CONTAINS}.
+     */
+    public PlanetFilter normalized() {
+        if (match == Match.CONTAINS) {
+            return new PlanetFilter(lowerCase(terrain), lowerCase(climate), match);
+        }
+        return new PlanetFilter(joinedTags(terrain), joinedTags(climate), match);
+    }
+
+    private static String lowerCase(String value) {
+        return value == null ? null : value.toLowerCase(Locale.ROOT);
+    }
+
+    private static String joinedTags(String value) {
+        Set<String> tags = new TreeSet<>(PlanetTags.split(value));
+        return tags.isEmpty() ? null : String.join(",", tags);
+    }
+
+    /** The filter of the list, count and facet queries. */
+    public Specification<Planet> toSpecification() {
+        if (match == Match.CONTAINS) {
+            PredicateSpecification<Planet> contains = contains();
+            return (root, query, builder) -> contains.toPredicate(root, builder);
+        }
+        return hasTags("terrainTags", PlanetTags.split(terrain))
+                .and(hasTags("climateTags", PlanetTags.split(climate)));
+    }
+
+    /**
+     * The filter of a bulk DELETE. Tags are matched with MEMBER OF instead of the
+     * IN-subquery of {@link #toSpecification()}, which MySQL rejects in a DELETE.
+     */
+    public PredicateSpecification<Planet> toDeleteSpecification() {
+        if (match == Match.CONTAINS) {
+            return contains();
+        }
+        return memberOfTags("terrainTags", PlanetTags.split(terrain))
+                .and(memberOfTags("climateTags", PlanetTags.split(climate)));
+    }
+
+    private PredicateSpecification<Planet> contains() {
+        return matching(makeQuery(new Planet(climate, terrain)));
+    }
+}
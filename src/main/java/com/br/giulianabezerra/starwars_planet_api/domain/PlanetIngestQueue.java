@@ -0,0 +1,183 @@
+package com.br.giulianabezerra.starwars_planet_api.domain;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-behind queue of planets accepted by {@code POST /planets/ingest}.
+ * <p>
+ * One writer thread takes up to {@code planets.ingest.batch-size} planets at a time,
+ * waiting at most {@code planets.ingest.linger} for a batch to fill, and creates them
+ * with {@link PlanetService#createAll}, which commits once per chunk of
+ * {@code planets.batch.size}. The outcome of each planet is kept by tracking id for
+ * {@code planets.ingest.status-ttl}.
+ * <p>
+ * The queue holds {@code planets.ingest.queue-capacity} planets; beyond that, and
+ * once shutdown has begun, submissions are refused with 429. On shutdown the writer
+ * stops waiting for batches to fill and writes what is left, for up to
+ * {@code planets.ingest.shutdown-timeout}.
+ */
+@Component
+public class PlanetIngestQueue implements SmartLifecycle {
+    private static final Logger log = LoggerFactory.getLogger(PlanetIngestQueue.class);
+    private static final long STATUS_MAXIMUM_SIZE = 100_000;
+    private static final Duration POLL_INTERVAL = Duration.ofMillis(100);
+
+    private final PlanetService service;
+    private final BlockingQueue<Pending> queue;
+    private final Cache<UUID, PlanetIngestStatus> statuses;
+    private final int batchSize;
+    private final Duration linger;
+    private final Duration shutdownTimeout;
+    private final Counter rejected;
+
+    private volatile boolean accepting;
+    private volatile Thread writer;
+
+    public PlanetIngestQueue(PlanetService service,
+                             @Value("${planets.ingest.queue-capacity:10000}") int queueCapacity,
+                             @Value("${planets.ingest.batch-size:500}") int batchSize,
+                             @Value("${planets.ingest.linger:50ms}") Duration linger,
+                             @Value("${planets.ingest.status-ttl:10m}") Duration statusTtl,
+                             @Value("${planets.ingest.shutdown-timeout:30s}") Duration shutdownTimeout,
+                             MeterRegistry meterRegistry) {
+        this.service = service;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.statuses = Caffeine.newBuilder().maximumSize(STATUS_MAXIMUM_SIZE).expireAfterWrite(statusTtl).build();
+        this.batchSize = batchSize;
+        this.linger = linger;
+        this.shutdownTimeout = shutdownTimeout;
+        this.rejected = meterRegistry.counter("planets.ingest.rejected");
+        Gauge.builder("planets.ingest.queue.size", queue, BlockingQueue::size)
+                .description("Planets accepted but not written yet")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Queues a validated planet and returns its tracking id.
+     *
+     * @throws IngestQueueFullException if the queue is full or shutting down
+     */
+    public UUID submit(Planet planet) {
+        UUID id = UUID.randomUUID();
+        // Recorded first so the writer's outcome can never be overwritten by it.
+        statuses.put(id, PlanetIngestStatus.pending(id));
+        if (!accepting || !queue.offer(new Pending(id, planet))) {
+            statuses.invalidate(id);
+            rejected.increment();
+            throw new IngestQueueFullException();
+        }
+        return id;
+    }
+
+    public Optional<PlanetIngestStatus> status(UUID id) {
+        return Optional.ofNullable(statuses.getIfPresent(id));
+    }
+
+    @Override
+    public void start() {
+        accepting = true;
+        writer = Thread.ofPlatform().daemon().name("planets-ingest").start(this::drain);
+    }
+
+    @Override
+    public void stop() {
+        accepting = false;
+        Thread current = writer;
+        if (current == null) {
+            return;
+        }
+        try {
+            if (!current.join(shutdownTimeout)) {
+                log.warn("Ingest writer did not finish within {}, {} planets not written", shutdownTimeout, queue.size());
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        writer = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return writer != null;
+    }
+
+    /**
+     * Stops after the web server has stopped taking requests, so nothing accepted is left behind.
+     */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    private void drain() {
+        List<Pending> batch = new ArrayList<>(batchSize);
+        while (accepting || !queue.isEmpty()) {
+            try {
+                fill(batch);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (!batch.isEmpty()) {
+                write(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private void fill(List<Pending> batch) throws InterruptedException {
+        Pending first = queue.poll(POLL_INTERVAL.toNanos(), TimeUnit.NANOSECONDS);
+        if (first == null) {
+            return;
+        }
+        batch.add(first);
+        long deadline = System.nanoTime() + linger.toNanos();
+        while (batch.size() < batchSize) {
+            queue.drainTo(batch, batchSize - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() == batchSize || remaining <= 0 || !accepting) {
+                return;
+            }
+            // Polled in slices so that shutdown does not wait out a long linger.
+            Pending next = queue.poll(Math.min(remaining, POLL_INTERVAL.toNanos()), TimeUnit.NANOSECONDS);
+            if (next != null) {
+                batch.add(next);
+            }
+        }
+    }
+
+    private void write(List<Pending> batch) {
+        List<Planet> planets = batch.stream().map(Pending::planet).toList();
+        try {
+            PlanetBatchResult result = service.createAll(planets);
+            for (int i = 0; i < batch.size(); i++) {
+                UUID id = batch.get(i).id();
+                statuses.put(id, PlanetIngestStatus.of(id, result.items().get(i)));
+            }
+        } catch (RuntimeException ex) {
+            log.warn("Failed to write a batch of {} planets", batch.size(), ex);
+            batch.forEach(pending -> statuses.put(pending.id(), PlanetIngestStatus.failed(pending.id(), ex.getMessage())));
+        }
+    }
+
+    private record Pending(UUID id, Planet planet) {
+    }
+}
@@ -0,0 +1,24 @@
+package com.br.giulianabezerra.starwars_planet_api.domain;
+
+import java.util.UUID;
+
+/**
+ * Where a planet sent to {@code POST /planets/ingest} stands. The planet, with its
+ * id, is only present once created; the error only when it was not.
+ */
+public record PlanetIngestStatus(UUID id, State state, Planet planet, String error) {
+
+    public enum State { PENDING, CREATED, CONFLICT, INVALID, FAILED }
+
+    static PlanetIngestStatus pending(UUID id) {
+        return new PlanetIngestStatus(id, State.PENDING, null, null);
+    }
+
+    static PlanetIngestStatus of(UUID id, PlanetBatchResult.Item item) {
+        return new PlanetIngestStatus(id, State.valueOf(item.status().name()), item.planet(), item.error());
+    }
+
+    static PlanetIngestStatus failed(UUID id, String error) {
+        return new PlanetIngestStatus(id, State.FAILED, null, error);
+    }
+}
@@ -0,0 +1,4 @@
+package com.br.giulianabezerra.starwars_planet_api.domain;
+
+public record PlanetName(Long id, String name) {
+}
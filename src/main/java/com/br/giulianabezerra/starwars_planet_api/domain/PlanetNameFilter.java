@@ -0,0 +1,178 @@
+package com.br.giulianabezerra.starwars_planet_api.domain;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bloom filter over all planet names, so lookups of names that certainly do not
+ * exist skip the database.
+ * <p>
+ * Names are folded to lower case without accents, like the case and accent
+ * insensitive collation of the name column. The filter is rebuilt at startup and
+ * every {@code planets.name-filter.refresh-interval}, which also drops deleted names.
+ * Rows written by other nodes are picked up by reading the names with ids above
+ * the highest one seen, at most once per {@code planets.name-filter.catch-up-interval}.
+ * IDENTITY ids are handed out before commit, so a lower id can commit after a higher
+ * one was seen: each catch-up reads again the last {@code planets.name-filter.catch-up-overlap}
+ * ids below the highest one to pick those up.
+ */
+@Component
+public class PlanetNameFilter {
+    private static final int CHUNK_SIZE = 1000;
+
+    private final PlanetRepository repository;
+    private final long expectedNames;
+    private final double falsePositiveRate;
+    private final Duration catchUpInterval;
+    private final long catchUpOverlap;
+    private final Clock clock;
+    private final Counter negatives;
+    private final Counter falsePositives;
+    private final ReentrantLock catchUpLock = new ReentrantLock();
+
+    private volatile NameBloomFilter filter;
+    private volatile long lastSeenId;
+    private volatile Instant lastCatchUp = Instant.MIN;
+
+    @Autowired
+    public PlanetNameFilter(PlanetRepository repository,
+                            @Value("${planets.name-filter.expected-names:1000000}") long expectedNames,
+                            @Value("${planets.name-filter.false-positive-rate:0.01}") double falsePositiveRate,
+                            @Value("${planets.name-filter.catch-up-interval:1s}") Duration catchUpInterval,
+                            @Value("${planets.name-filter.catch-up-overlap:1000}") long catchUpOverlap,
+                            MeterRegistry meterRegistry) {
+        this(repository, expectedNames, falsePositiveRate, catchUpInterval, catchUpOverlap, meterRegistry, Clock.systemUTC());
+    }
+
+    PlanetNameFilter(PlanetRepository repository, long expectedNames, double falsePositiveRate,
+                     Duration catchUpInterval, long catchUpOverlap, MeterRegistry meterRegistry, Clock clock) {
+        this.repository = repository;
+        this.expectedNames = expectedNames;
+        this.falsePositiveRate = falsePositiveRate;
+        this.catchUpInterval = catchUpInterval;
+        this.catchUpOverlap = catchUpOverlap;
+        this.clock = clock;
+        this.negatives = meterRegistry.counter("planets.name.filter", "result", "negative");
+        this.falsePositives = meterRegistry.counter("planets.name.filter", "result", "false_positive");
+        Gauge.builder("planets.name.filter.false.positive.rate", this, PlanetNameFilter::observedFalsePositiveRate)
+                .description("Share of unknown names the filter let through to the database")
+                .register(meterRegistry);
+        Gauge.builder("planets.name.filter.expected.false.positive.rate", this, PlanetNameFilter::expectedFalsePositiveRate)
+                .register(meterRegistry);
+    }
+
+    /**
+     * {@code false} only if no planet has this name; until the first build, always {@code true}.
+     */
+    public boolean mightExist(String name) {
+        NameBloomFilter current = filter;
+        if (current == null) {
+            return true;
+        }
+        String key = normalize(name);
+        if (current.mightContain(key)) {
+            return true;
+        }
+        if (catchUpDue()) {
+            catchUp(current);
+            if (current.mightContain(key)) {
+                return true;
+            }
+        }
+        negatives.increment();
+        return false;
+    }
+
+    public void add(String name) {
+        NameBloomFilter current = filter;
+        if (current != null) {
+            current.add(normalize(name));
+        }
+    }
+
+    /**
+     * Records that a name passed the filter but was not found.
+     */
+    public void recordFalsePositive() {
+        falsePositives.increment();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${planets.name-filter.refresh-interval:10m}",
+            initialDelayString = "${planets.name-filter.refresh-interval:10m}")
+    public void rebuild() {
+        NameBloomFilter rebuilt = new NameBloomFilter(expectedNames, falsePositiveRate);
+        lastSeenId = load(rebuilt, 0L);
+        lastCatchUp = clock.instant();
+        filter = rebuilt;
+    }
+
+    private boolean catchUpDue() {
+        return !clock.instant().isBefore(lastCatchUp.plus(catchUpInterval));
+    }
+
+    // A lock rather than synchronized: the query inside would pin a virtual thread's carrier.
+    private void catchUp(NameBloomFilter current) {
+        catchUpLock.lock();
+        try {
+            if (!catchUpDue()) {
+                return;
+            }
+            lastSeenId = Math.max(lastSeenId, load(current, Math.max(0L, lastSeenId - catchUpOverlap)));
+            lastCatchUp = clock.instant();
+        } finally {
+            catchUpLock.unlock();
+        }
+    }
+
+    private long load(NameBloomFilter target, long afterId) {
+        long cursor = afterId;
+        List<PlanetName> names;
+        do {
+            names = repository.findNamesAfter(cursor, Limit.of(CHUNK_SIZE));
+            for (PlanetName name : names) {
+                target.add(normalize(name.name()));
+                cursor = name.id();
+            }
+        } while (names.size() == CHUNK_SIZE);
+        return cursor;
+    }
+
+    private double observedFalsePositiveRate() {
+        double passed = falsePositives.count();
+        double total = passed + negatives.count();
+        return total == 0 ? 0 : passed / total;
+    }
+
+    private double expectedFalsePositiveRate() {
+        NameBloomFilter current = filter;
+        return current == null ? 0 : current.expectedFalsePositiveRate();
+    }
+
+    static String normalize(String name) {
+        String trimmed = name.trim();
+        // Plain ASCII has no accents to strip, which spares most names the decomposition.
+        if (trimmed.chars().allMatch(c -> c < 0x80)) {
+            return trimmed.toLowerCase(Locale.ROOT);
+        }
+        return Normalizer.normalize(trimmed, Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "")
+                .toLowerCase(Locale.ROOT);
+    }
+}
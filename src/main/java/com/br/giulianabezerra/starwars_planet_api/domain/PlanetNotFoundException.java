@@ -0,0 +1,20 @@
+package com.br.giulianabezerra.starwars_planet_api.domain;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * 404 without a stack trace: lookups of unknown planets are routine, so the
+ * exception should cost no more than the allocation.
+ */
+public class PlanetNotFoundException extends ResponseStatusException {
+
+    public PlanetNotFoundException() {
+        super(HttpStatus.NOT_FOUND);
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+}
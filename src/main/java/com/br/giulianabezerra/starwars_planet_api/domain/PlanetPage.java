@@ -0,0 +1,43 @@
+package com.br.giulianabezerra.starwars_planet_api.domain;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * One keyset page of planets. {@code nextCursor} is an opaque token for the
+ * following page, or {@code null} when this is the last one.
+ */
+public record PlanetPage(List<PlanetView> planets, String nextCursor) {
+
+    /**
+     * Builds a page from a query that fetched {@code limit + 1} rows; the extra
+     * row only tells us whether another page exists.
+     */
+    public static PlanetPage of(List<PlanetView> fetched, int limit) {
+        if (fetched.size() <= limit) {
+            return new PlanetPage(fetched, null);
+        }
+        List<PlanetView> planets = fetched.subList(0, limit);
+        return new PlanetPage(planets, encodeCursor(planets.getLast().id()));
+    }
+
+    public static String encodeCursor(Long id) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(id.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static Long decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            return Long.valueOf(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException ex) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+        }
+    }
+}
@@ -1,18 +1,76 @@
 package com.br.giulianabezerra.starwars_planet_api.domain;
 
 import org.springframework.data.domain.Example;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.QueryByExampleExecutor;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
+import static com.br.giulianabezerra.starwars_planet_api.domain.QueryBuilder.afterId;
+
+/**
+ * Query methods run in read-only transactions: Hibernate skips flushing and dirty
+ * checking, and the JDBC connection is flagged read-only. Writes override it.
+ */
 @Repository
-public interface PlanetRepository extends JpaRepository<Planet, Long>, QueryByExampleExecutor<Planet> {
+@Transactional(readOnly = true)
+public interface PlanetRepository extends JpaRepository<Planet, Long>, QueryByExampleExecutor<Planet>, JpaSpecificationExecutor<Planet>, PlanetStreamRepository, PlanetBatchRepository, PlanetFacetRepository {
 
     Optional<Planet> findByName(String name);
 
+    @Query("select new com.br.giulianabezerra.starwars_planet_api.domain.PlanetView(p.id, p.name, p.climate, p.terrain, p.version) from Planet p where p.id = :id")
+    Optional<PlanetView> findViewById(Long id);
+
+    @Query("select new com.br.giulianabezerra.starwars_planet_api.domain.PlanetView(p.id, p.name, p.climate, p.terrain, p.version) from Planet p where p.name = :name")
+    Optional<PlanetView> findViewByName(String name);
+
+    @Query("select p.name from Planet p where p.name in :names")
+    List<String> findExistingNames(Collection<String> names);
+
+    /**
+     * Loads the planets having one of the ids or one of the names in a single
+     * {@code IN (...)} query. Either collection may be empty, not both.
+     */
+    @Query("select new com.br.giulianabezerra.starwars_planet_api.domain.PlanetView(p.id, p.name, p.climate, p.terrain, p.version) from Planet p where p.id in :ids or p.name in :names")
+    List<PlanetView> findByIdsOrNames(Collection<Long> ids, Collection<String> names);
+
     @Override
     <S extends Planet> List<S> findAll(Example<S> example);
+
+    /**
+     * Deletes in one statement; the tag rows go with it through ON DELETE CASCADE.
+     * Returns the number of rows deleted.
+     */
+    @Transactional
+    @Modifying
+    @Query("delete from Planet p where p.id = :id")
+    int deleteWhereId(Long id);
+
+    @Query("select max(p.id) from Planet p")
+    Optional<Long> findMaxId();
+
+    @Query("select new com.br.giulianabezerra.starwars_planet_api.domain.PlanetName(p.id, p.name) from Planet p where p.id > :cursor order by p.id")
+    List<PlanetName> findNamesAfter(Long cursor, Limit limit);
+
+    @Query("select p from Planet p where p.id > :cursor and (p.terrainTags is empty or p.climateTags is empty) order by p.id")
+    List<Planet> findUntagged(Long cursor, Limit limit);
+
+    /**
+     * Keyset page: {@code WHERE <filter> AND id > :cursor ORDER BY id LIMIT :limit}.
+     * Unlike an OFFSET page, the cost does not grow with the position of the page.
+     */
+    default List<PlanetView> findPage(Specification<Planet> filter, Long cursor, int limit) {
+        return findBy(filter.and(afterId(cursor)),
+                query -> query.as(PlanetView.class).sortBy(Sort.by("id")).limit(limit).all());
+    }
 }
@@ -1,46 +1,341 @@
 package com.br.giulianabezerra.starwars_planet_api.domain;
 
-import org.springframework.data.domain.Example;
+import com.br.giulianabezerra.starwars_planet_api.jfr.Recorded;
+import io.micrometer.core.annotation.Timed;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.server.ResponseStatusException;
 
-import java.util.List;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
-import static com.br.giulianabezerra.starwars_planet_api.domain.QueryBuilder.makeQuery;
+import static com.br.giulianabezerra.starwars_planet_api.domain.QueryBuilder.idIn;
 
 @Service
+@Timed("planets.service")
 public class PlanetService {
     private final PlanetRepository repository;
+    private final Validator validator;
+    private final PlanetCache cache;
+    private final PlanetNameFilter nameFilter;
+    private final PlanetCatalog catalog;
+    private final int batchSize;
+    private final TransactionOperations chunkTransactions;
 
-    public PlanetService(PlanetRepository repository) {
+    @Autowired
+    public PlanetService(PlanetRepository repository, Validator validator, PlanetCache cache,
+                         PlanetNameFilter nameFilter, PlanetCatalog catalog,
+                         @Value("${planets.batch.size:500}") int batchSize,
+                         PlatformTransactionManager transactionManager) {
+        this(repository, validator, cache, nameFilter, catalog, batchSize, perChunk(transactionManager));
+    }
+
+    public PlanetService(PlanetRepository repository, Validator validator, PlanetCache cache,
+                         PlanetNameFilter nameFilter, PlanetCatalog catalog, int batchSize,
+                         TransactionOperations chunkTransactions) {
         this.repository = repository;
+        this.validator = validator;
+        this.cache = cache;
+        this.nameFilter = nameFilter;
+        this.catalog = catalog;
+        this.batchSize = batchSize;
+        this.chunkTransactions = chunkTransactions;
+    }
+
+    /**
+     * Each chunk commits on its own, even inside a caller's transaction, so a conflicting
+     * chunk rolls back alone and can be retried row by row.
+     */
+    private static TransactionOperations perChunk(PlatformTransactionManager transactionManager) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        return template;
     }
 
+    @Recorded
     public Planet create (Planet planet) {
-        return repository.save(planet);
+        Planet created = repository.save(planet);
+        nameFilter.add(created.getName());
+        cache.evictName(created.getName());
+        // After the catalog change, so the version advances past it once it is applied on commit.
+        catalog.put(List.of(PlanetView.of(created)));
+        cache.evictFilterResults();
+        return created;
+    }
+
+    /**
+     * Creates the planets in JDBC batches of {@code planets.batch.size}. Invalid
+     * planets and name conflicts are reported per item instead of failing the batch.
+     * Names are compared the way the name column's collation does.
+     */
+    public PlanetBatchResult createAll(List<Planet> planets) {
+        PlanetBatchResult.Item[] items = new PlanetBatchResult.Item[planets.size()];
+        Map<String, Integer> pending = new LinkedHashMap<>();
+
+        for (int i = 0; i < planets.size(); i++) {
+            Planet planet = planets.get(i);
+            if (planet == null) {
+                items[i] = PlanetBatchResult.Item.failed(i, PlanetBatchResult.Status.INVALID, "Planet is null");
+                continue;
+            }
+            Set<ConstraintViolation<Planet>> violations = validator.validate(planet);
+            if (!violations.isEmpty()) {
+                items[i] = PlanetBatchResult.Item.failed(i, PlanetBatchResult.Status.INVALID, describe(violations));
+            } else if (pending.putIfAbsent(PlanetNameFilter.normalize(planet.getName()), i) != null) {
+                items[i] = PlanetBatchResult.Item.failed(i, PlanetBatchResult.Status.CONFLICT, "Duplicate name in batch");
+            }
+        }
+
+        List<String> names = pending.values().stream().map(i -> planets.get(i).getName()).toList();
+        for (List<String> chunk : chunks(names)) {
+            for (String existing : repository.findExistingNames(chunk)) {
+                Integer index = pending.remove(PlanetNameFilter.normalize(existing));
+                if (index != null) {
+                    items[index] = PlanetBatchResult.Item.failed(index, PlanetBatchResult.Status.CONFLICT, "Name already exists");
+                }
+            }
+        }
+
+        for (List<Integer> chunk : chunks(new ArrayList<>(pending.values()))) {
+            insert(planets, chunk, items);
+        }
+
+        return new PlanetBatchResult(Arrays.asList(items));
+    }
+
+    private void insert(List<Planet> planets, List<Integer> indexes, PlanetBatchResult.Item[] items) {
+        List<Planet> chunk = indexes.stream().map(planets::get).toList();
+        try {
+            chunkTransactions.executeWithoutResult(status -> repository.insertAll(chunk));
+        } catch (DataIntegrityViolationException ex) {
+            if (indexes.size() == 1) {
+                int index = indexes.getFirst();
+                items[index] = PlanetBatchResult.Item.failed(index, PlanetBatchResult.Status.CONFLICT, "Name already exists");
+                return;
+            }
+            // A row written concurrently conflicts with this chunk: retry one by one to isolate it.
+            indexes.forEach(i -> insert(planets, List.of(i), items));
+            return;
+        }
+        catalog.put(chunk.stream().map(PlanetView::of).toList());
+        cache.evictFilterResults();
+        indexes.forEach(i -> {
+            nameFilter.add(planets.get(i).getName());
+            items[i] = PlanetBatchResult.Item.created(i, planets.get(i));
+        });
     }
 
-    public Planet findById(Long id) {
-        return repository.findById(id)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
+    private <T> List<List<T>> chunks(List<T> values) {
+        List<List<T>> chunks = new ArrayList<>();
+        for (int from = 0; from < values.size(); from += batchSize) {
+            chunks.add(values.subList(from, Math.min(from + batchSize, values.size())));
+        }
+        return chunks;
     }
 
-    public Planet findByName(String name) {
-        return repository.findByName(name)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
+    private static String describe(Set<ConstraintViolation<Planet>> violations) {
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+                .sorted()
+                .reduce((a, b) -> a + ", " + b)
+                .orElseThrow();
     }
 
-    public List<Planet> findAll(String terrain, String climate) {
-        Example<Planet> query = makeQuery(new Planet(climate, terrain));
-        return repository.findAll(query);
+    @Recorded
+    public PlanetView findById(Long id) {
+        PlanetCatalogSnapshot snapshot = catalog.current();
+        if (snapshot != null) {
+            return snapshot.findById(id).orElseThrow(PlanetNotFoundException::new);
+        }
+        return cache.findById(id, repository::findViewById)
+                .orElseThrow(PlanetNotFoundException::new);
+    }
+
+    @Recorded
+    public PlanetView findByName(String name) {
+        PlanetCatalogSnapshot snapshot = catalog.current();
+        if (snapshot != null) {
+            return snapshot.findByName(name).orElseThrow(PlanetNotFoundException::new);
+        }
+        if (!nameFilter.mightExist(name)) {
+            throw new PlanetNotFoundException();
+        }
+        return cache.findByName(name, repository::findViewByName)
+                .orElseThrow(() -> {
+                    nameFilter.recordFalsePositive();
+                    return new PlanetNotFoundException();
+                });
     }
 
+    /**
+     * Looks planets up by id and by name. Cache hits are served directly and the
+     * misses are loaded with one {@code IN (...)} query per chunk of {@code planets.batch.size}
+     * keys. Planets come back in the order asked for, ids first; unknown keys are skipped.
+     */
+    @Recorded
+    public List<PlanetView> findAll(Collection<Long> ids, Collection<String> names) {
+        List<Long> idKeys = distinct(ids);
+        List<String> nameKeys = distinct(names);
+        if (idKeys.isEmpty() && nameKeys.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "A list of ids or names is required");
+        }
+        PlanetCatalogSnapshot snapshot = catalog.current();
+        if (snapshot != null) {
+            return findAll(snapshot, idKeys, nameKeys);
+        }
+
+        long loadedAt = cache.generation();
+        Map<Long, PlanetView> byId = new HashMap<>(cache.getAllPresent(idKeys));
+        // Matches the case-insensitive collation of the name column on MySQL.
+        Map<String, PlanetView> byName = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        byName.putAll(cache.getAllPresentByName(nameKeys));
+
+        List<List<Long>> idChunks = chunks(idKeys.stream().filter(id -> !byId.containsKey(id)).toList());
+        List<String> missingNames = nameKeys.stream()
+                .filter(name -> !byName.containsKey(name) && nameFilter.mightExist(name))
+                .toList();
+        List<List<String>> nameChunks = chunks(missingNames);
+
+        for (int i = 0; i < Math.max(idChunks.size(), nameChunks.size()); i++) {
+            List<Long> idChunk = i < idChunks.size() ? idChunks.get(i) : List.of();
+            List<String> nameChunk = i < nameChunks.size() ? nameChunks.get(i) : List.of();
+            for (PlanetView planet : repository.findByIdsOrNames(idChunk, nameChunk)) {
+                cache.put(planet, loadedAt);
+                byId.put(planet.id(), planet);
+                byName.put(planet.name(), planet);
+            }
+        }
+        missingNames.stream()
+                .filter(name -> !byName.containsKey(name))
+                .forEach(name -> nameFilter.recordFalsePositive());
+
+        Map<Long, PlanetView> found = new LinkedHashMap<>();
+        Stream.concat(idKeys.stream().map(byId::get), nameKeys.stream().map(byName::get))
+                .filter(Objects::nonNull)
+                .forEach(planet -> found.putIfAbsent(planet.id(), planet));
+        return List.copyOf(found.values());
+    }
+
+    private static List<PlanetView> findAll(PlanetCatalogSnapshot snapshot, List<Long> ids, List<String> names) {
+        Map<Long, PlanetView> found = new LinkedHashMap<>();
+        Stream.concat(ids.stream().map(snapshot::findById), names.stream().map(snapshot::findByName))
+                .flatMap(Optional::stream)
+                .forEach(planet -> found.putIfAbsent(planet.id(), planet));
+        return List.copyOf(found.values());
+    }
+
+    private static <T> List<T> distinct(Collection<T> values) {
+        return values == null ? List.of() : values.stream().filter(Objects::nonNull).distinct().toList();
+    }
+
+    /**
+     * Advanced on every write, after its transaction commits as well as before, and on
+     * every catalog snapshot swapped in, reloads included. A list read after reading a
+     * given value reflects every change that advanced it up to there. Writes made behind
+     * the application's back do not advance it.
+     */
+    public long catalogVersion() {
+        // Both only move forward, so their sum moves whenever either does.
+        return cache.version() + catalog.version();
+    }
+
+    /** When {@link #catalogVersion()} last advanced, in epoch milliseconds. */
+    public long catalogChangedAt() {
+        return Math.max(cache.versionChangedAt(), catalog.versionChangedAt());
+    }
+
+    /**
+     * One page of planets matching the filter. Pages read from the database are
+     * cached per normalized filter until the next write.
+     */
+    @Recorded
+    public PlanetPage findAll(PlanetFilter filter, String cursor, int limit) {
+        PlanetCatalogSnapshot snapshot = catalog.current();
+        if (snapshot != null) {
+            return PlanetPage.of(snapshot.findPage(filter, PlanetPage.decodeCursor(cursor), limit + 1), limit);
+        }
+        Long after = PlanetPage.decodeCursor(cursor);
+        return cache.page(filter, after, limit,
+                () -> PlanetPage.of(repository.findPage(filter.toSpecification(), after, limit + 1), limit));
+    }
+
+    /**
+     * Counts the matching planets per climate and per terrain tag, computed in the
+     * database and cached per filter until the next write.
+     */
+    public PlanetFacets facets(PlanetFilter filter) {
+        return cache.facets(filter, key -> new PlanetFacets(
+                repository.countByTag("climateTags", key.toSpecification()),
+                repository.countByTag("terrainTags", key.toSpecification())));
+    }
+
+    public long count(PlanetFilter filter) {
+        PlanetCatalogSnapshot snapshot = catalog.current();
+        if (snapshot != null) {
+            return snapshot.count(filter);
+        }
+        return repository.count(filter.toSpecification());
+    }
+
+    /**
+     * Fills the tag index of up to {@code limit} planets stored before it existed.
+     * Returns the id of the last planet visited, or {@code null} when none is left.
+     */
+    @Transactional
+    public Long indexTags(Long cursor, int limit) {
+        List<Planet> planets = repository.findUntagged(cursor == null ? 0L : cursor, Limit.of(limit));
+        planets.forEach(Planet::indexTags);
+        cache.evictFilterResults();
+        return planets.isEmpty() ? null : planets.getLast().getId();
+    }
+
+    @Transactional(readOnly = true)
+    public void forEach(Consumer<PlanetView> action) {
+        try (Stream<PlanetView> planets = repository.streamAll()) {
+            planets.forEach(action);
+        }
+    }
+
+    @Recorded
     public void deleteById(Long id) {
-        if (!repository.existsById(id)) {
-            throw new ResponseStatusException(HttpStatus.NOT_FOUND);
+        if (repository.deleteWhereId(id) == 0) {
+            throw new PlanetNotFoundException();
         }
+        cache.evictId(id);
+        catalog.remove(List.of(id));
+        cache.evictFilterResults();
+    }
 
-        repository.deleteById(id);
+    /**
+     * Deletes every planet matching both the filter and the id list in one statement.
+     * At least one of them must be given. Returns the number of planets deleted.
+     */
+    public long deleteAll(PlanetFilter filter, Collection<Long> ids) {
+        if (filter.isEmpty() && (ids == null || ids.isEmpty())) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "A filter or a list of ids is required");
+        }
+        long deleted = repository.delete(filter.toDeleteSpecification().and(idIn(ids)));
+        if (deleted > 0) {
+            cache.evictAll();
+            if (filter.isEmpty()) {
+                catalog.remove(ids);
+            } else {
+                catalog.reload();
+            }
+            cache.evictFilterResults();
+        }
+        return deleted;
     }
 }
@@ -0,0 +1,13 @@
+package com.br.giulianabezerra.starwars_planet_api.domain;
+
+import java.util.stream.Stream;
+
+public interface PlanetStreamRepository {
+
+    /**
+     * Streams every planet ordered by id through a JDBC cursor. Must be consumed
+     * inside a transaction and closed afterwards; rows are read as projections,
+     * so the persistence context does not grow with the table.
+     */
+    Stream<PlanetView> streamAll();
+}
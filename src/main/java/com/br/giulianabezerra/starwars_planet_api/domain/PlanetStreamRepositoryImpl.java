@@ -0,0 +1,25 @@
+package com.br.giulianabezerra.starwars_planet_api.domain;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Value;
+
+import java.util.stream.Stream;
+
+class PlanetStreamRepositoryImpl implements PlanetStreamRepository {
+    private final EntityManager entityManager;
+    private final int fetchSize;
+
+    PlanetStreamRepositoryImpl(EntityManager entityManager,
+                               @Value("${planets.export.fetch-size:1000}") int fetchSize) {
+        this.entityManager = entityManager;
+        this.fetchSize = fetchSize;
+    }
+
+    @Override
+    public Stream<PlanetView> streamAll() {
+        return entityManager.createQuery("select new com.br.giulianabezerra.starwars_planet_api.domain.PlanetView(p.id, p.name, p.climate, p.terrain, p.version) from Planet p order by p.id", PlanetView.class)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .getResultStream();
+    }
+}
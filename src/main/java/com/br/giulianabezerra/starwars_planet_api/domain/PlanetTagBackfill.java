@@ -0,0 +1,39 @@
+package com.br.giulianabezerra.starwars_planet_api.domain;
+
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+
+/**
+ * Builds the tag index of planets stored before the tag tables existed,
+ * one short transaction per chunk. Runs once: when it finishes it is recorded in
+ * {@code planet_migrations}, and later startups skip it. Planets created since are
+ * tagged as they are written, and a planet may legitimately have no tags.
+ */
+@Component
+class PlanetTagBackfill implements ApplicationRunner {
+    static final String MIGRATION = "planet-tag-index";
+    private static final int CHUNK_SIZE = 500;
+
+    private final PlanetService service;
+    private final CompletedMigrationRepository migrations;
+
+    PlanetTagBackfill(PlanetService service, CompletedMigrationRepository migrations) {
+        this.service = service;
+        this.migrations = migrations;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (migrations.existsById(MIGRATION)) {
+            return;
+        }
+        Long cursor = service.indexTags(null, CHUNK_SIZE);
+        while (cursor != null) {
+            cursor = service.indexTags(cursor, CHUNK_SIZE);
+        }
+        migrations.save(new CompletedMigration(MIGRATION, Instant.now()));
+    }
+}
@@ -0,0 +1,25 @@
+package com.br.giulianabezerra.starwars_planet_api.domain;
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Splits comma-separated terrain/climate values such as "grasslands, mountains"
+ * into trimmed, lower-case tags.
+ */
+public class PlanetTags {
+    private PlanetTags(){};
+
+    public static Set<String> split(String value) {
+        if (value == null) {
+            return new LinkedHashSet<>();
+        }
+        return Arrays.stream(value.split(","))
+                .map(tag -> tag.trim().toLowerCase(Locale.ROOT))
+                .filter(tag -> !tag.isEmpty())
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+}
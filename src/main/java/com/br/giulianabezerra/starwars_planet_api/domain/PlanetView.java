@@ -0,0 +1,23 @@
+package com.br.giulianabezerra.starwars_planet_api.domain;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+/**
+ * Read-only projection of a planet, selected straight into a record by the read
+ * queries so that no managed entity, dirty-checking snapshot or proxy is created.
+ * The row version is not part of the JSON; a planet not yet written has version 0.
+ */
+public record PlanetView(Long id, String name, String climate, String terrain, @JsonIgnore Long version) {
+
+    public PlanetView {
+        version = version == null ? 0L : version;
+    }
+
+    public PlanetView(Long id, String name, String climate, String terrain) {
+        this(id, name, climate, terrain, 0L);
+    }
+
+    public static PlanetView of(Planet planet) {
+        return new PlanetView(planet.getId(), planet.getName(), planet.getClimate(), planet.getTerrain(), planet.getVersion());
+    }
+}
@@ -1,7 +1,16 @@
 package com.br.giulianabezerra.starwars_planet_api.domain;
 
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
 import org.springframework.data.domain.Example;
 import org.springframework.data.domain.ExampleMatcher;
+import org.springframework.data.jpa.convert.QueryByExamplePredicateBuilder;
+import org.springframework.data.jpa.domain.PredicateSpecification;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Collection;
+import java.util.Set;
 
 public class QueryBuilder {
     private QueryBuilder(){};
@@ -10,4 +19,54 @@ public class QueryBuilder {
         ExampleMatcher exampleMatcher = ExampleMatcher.matchingAll().withIgnoreCase().withIgnoreNullValues().withStringMatcher(ExampleMatcher.StringMatcher.CONTAINING);
         return Example.of(planet, exampleMatcher);
     }
+
+    @SuppressWarnings("unchecked")
+    public static PredicateSpecification<Planet> matching(Example<Planet> example) {
+        return (from, builder) -> QueryByExamplePredicateBuilder.getPredicate((Root<Planet>) (Object) from, builder, example);
+    }
+
+    public static Specification<Planet> afterId(Long cursor) {
+        return (root, query, builder) -> cursor == null ? null : builder.greaterThan(root.get("id"), cursor);
+    }
+
+    public static PredicateSpecification<Planet> idIn(Collection<Long> ids) {
+        return (from, builder) -> ids == null || ids.isEmpty() ? null : from.get("id").in(ids);
+    }
+
+    /**
+     * {@code id IN (SELECT planet_id FROM <tag table> WHERE tag = ?)} for each tag,
+     * so every lookup is served by the (tag, planet_id) index.
+     */
+    public static Specification<Planet> hasTags(String collection, Set<String> tags) {
+        return (root, query, builder) -> {
+            if (tags.isEmpty()) {
+                return null;
+            }
+            Predicate[] predicates = tags.stream().map(tag -> {
+                Subquery<Long> tagged = query.subquery(Long.class);
+                Root<Planet> planet = tagged.from(Planet.class);
+                tagged.select(planet.get("id")).where(builder.equal(planet.join(collection), tag));
+                return root.get("id").in(tagged);
+            }).toArray(Predicate[]::new);
+            return builder.and(predicates);
+        };
+    }
+
+    /**
+     * {@code ? MEMBER OF <tags>} for each tag: a correlated lookup on the
+     * (planet_id, tag) key of the tag table. It only reads the tag table, so it
+     * also works in a DELETE on MySQL, which rejects subqueries on the target table
+     * (error 1093). Reads use {@link #hasTags}, whose lookups start from the tag.
+     */
+    public static PredicateSpecification<Planet> memberOfTags(String collection, Set<String> tags) {
+        return (from, builder) -> {
+            if (tags.isEmpty()) {
+                return null;
+            }
+            Predicate[] predicates = tags.stream()
+                    .map(tag -> builder.isMember(tag, from.<Set<String>>get(collection)))
+                    .toArray(Predicate[]::new);
+            return builder.and(predicates);
+        };
+    }
 }
@@ -0,0 +1,89 @@
+package com.br.giulianabezerra.starwars_planet_api.domain;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Runs one load per key at a time. Callers asking for a key that is already being
+ * loaded wait for that load and share its result, or its exception. They wait for
+ * {@code maxWait} at most and then load it themselves, so a stuck query does not hold
+ * every caller behind it. The load runs on the calling thread outside of any lock.
+ * <p>
+ * Calls are counted in {@code planets.singleflight.calls}, tagged with the operation
+ * and whether the call ran the load ({@code leader}) or shared it ({@code follower});
+ * followers over all calls is the coalescing ratio. Followers that gave up waiting are
+ * counted in {@code planets.singleflight.timeouts}.
+ */
+final class SingleFlight<K, V> {
+    private final ConcurrentMap<K, CompletableFuture<V>> flights = new ConcurrentHashMap<>();
+    private final String operation;
+    private final Duration maxWait;
+    private final Counter leaders;
+    private final Counter followers;
+    private final Counter timeouts;
+
+    SingleFlight(String operation, Duration maxWait, MeterRegistry meterRegistry) {
+        this.operation = operation;
+        this.maxWait = maxWait;
+        this.leaders = calls(meterRegistry, operation, "leader");
+        this.followers = calls(meterRegistry, operation, "follower");
+        this.timeouts = timeouts(meterRegistry, operation);
+    }
+
+    /** The call counter of {@code operation}, for loads coalesced some other way. */
+    static Counter calls(MeterRegistry meterRegistry, String operation, String role) {
+        return Counter.builder("planets.singleflight.calls")
+                .tag("operation", operation)
+                .tag("role", role)
+                .register(meterRegistry);
+    }
+
+    /** The timeout counter of {@code operation}, for loads coalesced some other way. */
+    static Counter timeouts(MeterRegistry meterRegistry, String operation) {
+        return Counter.builder("planets.singleflight.timeouts").tag("operation", operation).register(meterRegistry);
+    }
+
+    V run(K key, Supplier<V> loader) {
+        CompletableFuture<V> flight = new CompletableFuture<>();
+        CompletableFuture<V> running = flights.putIfAbsent(key, flight);
+        if (running == null) {
+            leaders.increment();
+            return lead(key, flight, loader);
+        }
+
+        followers.increment();
+        try {
+            return running.get(maxWait.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException ex) {
+            timeouts.increment();
+            return loader.get();
+        } catch (ExecutionException ex) {
+            throw ex.getCause() instanceof RuntimeException cause ? cause : new IllegalStateException(ex.getCause());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for " + operation, ex);
+        }
+    }
+
+    private V lead(K key, CompletableFuture<V> flight, Supplier<V> loader) {
+        try {
+            V loaded = loader.get();
+            flight.complete(loaded);
+            return loaded;
+        } catch (RuntimeException | Error ex) {
+            flight.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            flights.remove(key, flight);
+        }
+    }
+}
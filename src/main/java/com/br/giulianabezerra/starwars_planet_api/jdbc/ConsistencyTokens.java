@@ -0,0 +1,63 @@
+package com.br.giulianabezerra.starwars_planet_api.jdbc;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+
+/**
+ * Read-your-writes tokens. A token records when a write was made; a request carrying
+ * it reads from the primary until {@code planets.datasource.replica-max-lag} has passed,
+ * by which time the replicas are expected to have applied the write. Without
+ * {@code planets.datasource.replica-urls} every read is a primary read and the lag is zero.
+ */
+@Component
+public class ConsistencyTokens {
+    private final Duration replicaMaxLag;
+    private final Clock clock;
+
+    @Autowired
+    public ConsistencyTokens(@Value("${planets.datasource.replica-max-lag:1s}") Duration replicaMaxLag,
+                             @Value("${planets.datasource.replica-urls:}") String replicaUrls) {
+        this(replicaUrls.isBlank() ? Duration.ZERO : replicaMaxLag);
+    }
+
+    public ConsistencyTokens(Duration replicaMaxLag) {
+        this(replicaMaxLag, Clock.systemUTC());
+    }
+
+    ConsistencyTokens(Duration replicaMaxLag, Clock clock) {
+        this.replicaMaxLag = replicaMaxLag;
+        this.clock = clock;
+    }
+
+    public String issue() {
+        return Long.toString(clock.millis());
+    }
+
+    /**
+     * Whether a request carrying {@code token} must still read from the primary.
+     * Missing and malformed tokens never do, nor do tokens from the future: tokens come
+     * from clients, and one that never expires would pin a client to the primary.
+     */
+    public boolean requiresPrimary(String token) {
+        if (token == null) {
+            return false;
+        }
+        try {
+            long writtenAt = Long.parseLong(token);
+            return writtenAt <= clock.millis() && requiresPrimary(writtenAt);
+        } catch (NumberFormatException ex) {
+            return false;
+        }
+    }
+
+    /**
+     * Whether a replica may not show yet a write made at {@code writtenAt}, in epoch milliseconds.
+     */
+    public boolean requiresPrimary(long writtenAt) {
+        return clock.millis() < writtenAt + replicaMaxLag.toMillis();
+    }
+}
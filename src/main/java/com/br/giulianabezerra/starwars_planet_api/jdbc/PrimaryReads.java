@@ -0,0 +1,24 @@
+package com.br.giulianabezerra.starwars_planet_api.jdbc;
+
+/**
+ * Sends the read-only transactions of the current thread to the primary instead of a
+ * replica, for requests that must see their own recent writes.
+ */
+public final class PrimaryReads {
+    private static final ThreadLocal<Boolean> ACTIVE = new ThreadLocal<>();
+
+    private PrimaryReads() {
+    }
+
+    public static void start() {
+        ACTIVE.set(Boolean.TRUE);
+    }
+
+    public static void stop() {
+        ACTIVE.remove();
+    }
+
+    public static boolean isActive() {
+        return ACTIVE.get() != null;
+    }
+}
@@ -0,0 +1,75 @@
+package com.br.giulianabezerra.starwars_planet_api.jdbc;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Hands out connections to the replicas in turn. A replica that fails to give one is
+ * skipped for {@code retryInterval}; when none is available, or {@link PrimaryReads} is
+ * active, connections come from the primary.
+ */
+public class ReplicaDataSource extends AbstractDataSource implements AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(ReplicaDataSource.class);
+
+    private final DataSource primary;
+    private final List<DataSource> replicas;
+    private final Duration retryInterval;
+    private final AtomicInteger next = new AtomicInteger();
+    // System.nanoTime() until which each replica is skipped, 0 while it is healthy.
+    private final AtomicLongArray downUntil;
+
+    public ReplicaDataSource(DataSource primary, List<DataSource> replicas, Duration retryInterval) {
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+        this.retryInterval = retryInterval;
+        this.downUntil = new AtomicLongArray(replicas.size());
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (PrimaryReads.isActive() || replicas.isEmpty()) {
+            return primary.getConnection();
+        }
+        int first = Math.floorMod(next.getAndIncrement(), replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            int replica = (first + i) % replicas.size();
+            long down = downUntil.get(replica);
+            if (down != 0 && System.nanoTime() - down < 0) {
+                continue;
+            }
+            try {
+                Connection connection = replicas.get(replica).getConnection();
+                downUntil.set(replica, 0);
+                return connection;
+            } catch (SQLException ex) {
+                downUntil.set(replica, System.nanoTime() + retryInterval.toNanos());
+                log.warn("Replica {} is unavailable, skipping it for {}: {}", replica + 1, retryInterval, ex.getMessage());
+            }
+        }
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("Replica credentials are set per pool");
+    }
+
+    @Override
+    public void close() throws Exception {
+        for (DataSource replica : replicas) {
+            if (replica instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.br.giulianabezerra.starwars_planet_api.jdbc;
+
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Sends read-only transactions to the replicas and everything else to the primary.
+ * The physical connection is only taken at the first statement, once the transaction
+ * manager has flagged the connection read-only or not.
+ */
+public class ReplicaRoutingDataSource extends LazyConnectionDataSourceProxy implements AutoCloseable {
+    private final ReplicaDataSource replicas;
+
+    public ReplicaRoutingDataSource(DataSource primary, ReplicaDataSource replicas) {
+        super(primary);
+        this.replicas = replicas;
+        setReadOnlyDataSource(replicas);
+    }
+
+    @Override
+    public void close() throws Exception {
+        replicas.close();
+        if (obtainTargetDataSource() instanceof AutoCloseable primary) {
+            primary.close();
+        }
+    }
+}
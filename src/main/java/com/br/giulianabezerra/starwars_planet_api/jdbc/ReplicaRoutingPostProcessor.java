@@ -0,0 +1,64 @@
+package com.br.giulianabezerra.starwars_planet_api.jdbc;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Puts the configured {@code planets.datasource.replica-urls} behind the primary pool.
+ * Each replica gets a pool with the primary's settings and credentials, started on
+ * first use so a replica that is down does not stop the application from starting.
+ */
+@Component
+@ConditionalOnProperty("planets.datasource.replica-urls")
+public class ReplicaRoutingPostProcessor implements BeanPostProcessor, Ordered {
+    private final List<String> replicaUrls;
+    private final Duration retryInterval;
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    public ReplicaRoutingPostProcessor(@Value("${planets.datasource.replica-urls}") List<String> replicaUrls,
+                                       @Value("${planets.datasource.replica-retry-interval:10s}") Duration retryInterval,
+                                       ObjectProvider<MeterRegistry> meterRegistry) {
+        this.replicaUrls = replicaUrls;
+        this.retryInterval = retryInterval;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!(bean instanceof HikariDataSource primary)) {
+            return bean;
+        }
+        List<DataSource> replicas = new ArrayList<>();
+        for (int i = 0; i < replicaUrls.size(); i++) {
+            HikariConfig config = new HikariConfig();
+            primary.copyStateTo(config);
+            config.setJdbcUrl(replicaUrls.get(i).trim());
+            config.setPoolName((primary.getPoolName() == null ? "planets" : primary.getPoolName()) + "-replica-" + (i + 1));
+            meterRegistry.ifAvailable(config::setMetricRegistry);
+            HikariDataSource replica = new HikariDataSource();
+            config.copyStateTo(replica);
+            replicas.add(replica);
+        }
+        return new ReplicaRoutingDataSource(primary, new ReplicaDataSource(primary, replicas, retryInterval));
+    }
+
+    /**
+     * Runs before the statement counting wrapper, which then sees the routed connections.
+     */
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+}
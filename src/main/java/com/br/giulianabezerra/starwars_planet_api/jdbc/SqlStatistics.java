@@ -0,0 +1,67 @@
+package com.br.giulianabezerra.starwars_planet_api.jdbc;
+
+import java.time.Duration;
+
+/**
+ * Number of JDBC statements executed, and the time spent in them, since {@link #start()}
+ * was called on the current thread. A batch counts as one statement, since it is one round trip.
+ * Scopes nest: statements counted by an inner scope are added to the outer one when it stops.
+ */
+public final class SqlStatistics {
+    private static final ThreadLocal<SqlStatistics> CURRENT = new ThreadLocal<>();
+
+    private final SqlStatistics outer;
+    private int statements;
+    private long nanos;
+
+    private SqlStatistics(SqlStatistics outer) {
+        this.outer = outer;
+    }
+
+    /**
+     * Starts counting the statements executed by the current thread.
+     */
+    public static SqlStatistics start() {
+        SqlStatistics statistics = new SqlStatistics(CURRENT.get());
+        CURRENT.set(statistics);
+        return statistics;
+    }
+
+    /**
+     * Stops the innermost scope of the current thread; its statistics keep their totals.
+     */
+    public static void stop() {
+        SqlStatistics statistics = CURRENT.get();
+        if (statistics == null) {
+            return;
+        }
+        if (statistics.outer == null) {
+            CURRENT.remove();
+        } else {
+            statistics.outer.statements += statistics.statements;
+            statistics.outer.nanos += statistics.nanos;
+            CURRENT.set(statistics.outer);
+        }
+    }
+
+    static void record(long nanos) {
+        SqlStatistics statistics = CURRENT.get();
+        if (statistics != null) {
+            statistics.statements++;
+            statistics.nanos += nanos;
+        }
+    }
+
+    public int statements() {
+        return statements;
+    }
+
+    public Duration time() {
+        return Duration.ofNanos(nanos);
+    }
+
+    @Override
+    public String toString() {
+        return "%d statements in %.3f ms".formatted(statements, nanos / 1e6);
+    }
+}
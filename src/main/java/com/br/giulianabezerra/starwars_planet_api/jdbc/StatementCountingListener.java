@@ -0,0 +1,42 @@
+package com.br.giulianabezerra.starwars_planet_api.jdbc;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Times every statement executed through the proxied data source, adds it to the
+ * current thread's {@link SqlStatistics} and logs the ones slower than the threshold.
+ * A batch is one execution, so it is counted once.
+ */
+public class StatementCountingListener implements QueryExecutionListener {
+    private static final Logger log = LoggerFactory.getLogger(StatementCountingListener.class);
+    private static final String STARTED_AT = StatementCountingListener.class.getName() + ".startedAt";
+
+    private final long slowQueryNanos;
+
+    public StatementCountingListener(Duration slowQueryThreshold) {
+        this.slowQueryNanos = slowQueryThreshold.toNanos();
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        // The elapsed time datasource-proxy measures is in whole milliseconds.
+        execInfo.addCustomValue(STARTED_AT, System.nanoTime());
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        long elapsed = System.nanoTime() - execInfo.getCustomValue(STARTED_AT, Long.class);
+        SqlStatistics.record(elapsed);
+        if (elapsed >= slowQueryNanos) {
+            String sql = queryInfoList.isEmpty() ? "batch" : queryInfoList.getFirst().getQuery();
+            log.warn("Slow query ({} ms): {}", elapsed / 1_000_000, sql);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.br.giulianabezerra.starwars_planet_api.jdbc;
+
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Wraps the application's data source once it is configured, so Hibernate and
+ * {@code JdbcTemplate} statements both reach the {@link StatementCountingListener}.
+ */
+@Component
+public class StatementCountingPostProcessor implements BeanPostProcessor {
+    private final Duration slowQueryThreshold;
+
+    public StatementCountingPostProcessor(@Value("${planets.sql.slow-query-threshold:500ms}") Duration slowQueryThreshold) {
+        this.slowQueryThreshold = slowQueryThreshold;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+            return ProxyDataSourceBuilder.create(dataSource)
+                    .name(beanName)
+                    .listener(new StatementCountingListener(slowQueryThreshold))
+                    .build();
+        }
+        return bean;
+    }
+}
@@ -0,0 +1,153 @@
+package com.br.giulianabezerra.starwars_planet_api.jfr;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.jspecify.annotations.Nullable;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.boot.actuate.endpoint.web.annotation.WebEndpoint;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Flight Recorder on demand at {@code /actuator/jfr}: {@code POST} starts a recording,
+ * {@code GET} downloads what it holds so far and {@code DELETE} stops it. Recordings keep
+ * at most {@code planets.jfr.max-age} and {@code planets.jfr.max-size} of data and stop by
+ * themselves after {@code planets.jfr.max-duration}, so a forgotten one cannot fill the disk.
+ * <p>
+ * Recordings can hold request data, so the actuator is served on its own
+ * {@code management.server.port}, which must not be reachable from outside. The events
+ * recording the environment variables and system properties at startup are left out:
+ * they carry the database credentials.
+ */
+@Component
+@WebEndpoint(id = "jfr")
+public class FlightRecorderEndpoint {
+    private static final String MEDIA_TYPE = "application/octet-stream";
+    private static final Set<String> SETTINGS = Set.of("default", "profile");
+    private static final Set<String> SECRET_EVENTS = Set.of("jdk.InitialEnvironmentVariable", "jdk.InitialSystemProperty");
+
+    private final Duration maxAge;
+    private final DataSize maxSize;
+    private final Duration maxDuration;
+    // A lock rather than synchronized: dumping blocks on I/O and would pin a virtual thread.
+    private final ReentrantLock lock = new ReentrantLock();
+    private Recording recording;
+
+    public FlightRecorderEndpoint(@Value("${planets.jfr.max-age:10m}") Duration maxAge,
+                                  @Value("${planets.jfr.max-size:250MB}") DataSize maxSize,
+                                  @Value("${planets.jfr.max-duration:1h}") Duration maxDuration) {
+        this.maxAge = maxAge;
+        this.maxSize = maxSize;
+        this.maxDuration = maxDuration;
+    }
+
+    /**
+     * Starts a recording with the JDK's {@code default} settings (about 1% overhead), or
+     * {@code profile} for more detail, plus the planet operation events. No other
+     * settings are accepted.
+     */
+    @WriteOperation
+    public Map<String, Object> start(@Nullable String settings) throws IOException, ParseException {
+        String name = settings == null ? "default" : settings;
+        if (!SETTINGS.contains(name)) {
+            throw new InvalidEndpointRequestException("Unknown settings " + name, "Settings must be one of " + SETTINGS);
+        }
+        lock.lock();
+        try {
+            if (recording != null && recording.getState() == RecordingState.RUNNING) {
+                return status();
+            }
+            if (recording != null) {
+                recording.close();
+            }
+            recording = new Recording(Configuration.getConfiguration(name));
+            SECRET_EVENTS.forEach(recording::disable);
+            recording.setName("planets");
+            recording.setMaxAge(maxAge);
+            recording.setMaxSize(maxSize.toBytes());
+            recording.setDuration(maxDuration);
+            recording.setToDisk(true);
+            recording.enable(PlanetOperationEvent.NAME);
+            recording.start();
+            return status();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Dumps to a file of this request's own, so a concurrent dump cannot overwrite it
+     * while it is being sent. The file is deleted once it has been read.
+     */
+    @ReadOperation(produces = MEDIA_TYPE)
+    public WebEndpointResponse<Resource> dump() throws IOException {
+        Path dumpFile;
+        lock.lock();
+        try {
+            if (recording == null) {
+                return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+            }
+            dumpFile = Files.createTempFile("planets-", ".jfr");
+            dumpFile.toFile().deleteOnExit();
+            recording.dump(dumpFile);
+        } finally {
+            lock.unlock();
+        }
+        return new WebEndpointResponse<>(new FileSystemResource(dumpFile) {
+            @Override
+            public InputStream getInputStream() throws IOException {
+                return Files.newInputStream(dumpFile, StandardOpenOption.DELETE_ON_CLOSE);
+            }
+        }, WebEndpointResponse.STATUS_OK);
+    }
+
+    /**
+     * Stops the recording; its data can still be downloaded until the next one starts.
+     */
+    @DeleteOperation
+    public Map<String, Object> stop() {
+        lock.lock();
+        try {
+            if (recording != null && recording.getState() == RecordingState.RUNNING) {
+                recording.stop();
+            }
+            return status();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("state", recording == null ? "NONE" : recording.getState().name());
+        if (recording != null) {
+            Instant startTime = recording.getStartTime();
+            status.put("startTime", startTime == null ? null : startTime.toString());
+            status.put("maxAge", maxAge.toString());
+            status.put("maxSize", maxSize.toString());
+            status.put("size", recording.getSize());
+        }
+        return status;
+    }
+}
@@ -0,0 +1,42 @@
+package com.br.giulianabezerra.starwars_planet_api.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * A planet service call, recorded by Flight Recorder next to the JVM's own GC and allocation events.
+ */
+@Name(PlanetOperationEvent.NAME)
+@Label("Planet Operation")
+@Category("Planets")
+@Description("A call to a PlanetService operation")
+@StackTrace(false)
+public class PlanetOperationEvent extends Event {
+    public static final String NAME = "planets.PlanetOperation";
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Arguments")
+    String arguments;
+
+    @Label("Result Size")
+    @Description("Planets returned")
+    int resultSize;
+
+    @Label("SQL Statements")
+    int sqlStatements;
+
+    @Label("Repository Time")
+    @Description("Time spent running SQL statements")
+    @Timespan
+    long repositoryTime;
+
+    @Label("Error")
+    String error;
+}
@@ -0,0 +1,67 @@
+package com.br.giulianabezerra.starwars_planet_api.jfr;
+
+import com.br.giulianabezerra.starwars_planet_api.domain.PlanetPage;
+import com.br.giulianabezerra.starwars_planet_api.jdbc.SqlStatistics;
+import org.apache.commons.lang3.StringUtils;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Emits a {@link PlanetOperationEvent} around each {@link Recorded} method. The repository
+ * time is the time spent in JDBC statements on the calling thread, so cache hits show 0.
+ * Costs one check per call while no recording has the event enabled.
+ */
+@Aspect
+@Component
+public class PlanetOperationRecorder {
+    private static final int MAX_ARGUMENTS_LENGTH = 256;
+
+    @Around("@annotation(com.br.giulianabezerra.starwars_planet_api.jfr.Recorded)")
+    public Object record(ProceedingJoinPoint joinPoint) throws Throwable {
+        PlanetOperationEvent event = new PlanetOperationEvent();
+        if (!event.isEnabled()) {
+            return joinPoint.proceed();
+        }
+        event.begin();
+        SqlStatistics statistics = SqlStatistics.start();
+        try {
+            Object result = joinPoint.proceed();
+            event.resultSize = sizeOf(result);
+            return result;
+        } catch (Throwable ex) {
+            event.error = ex.getClass().getSimpleName();
+            throw ex;
+        } finally {
+            SqlStatistics.stop();
+            event.end();
+            if (event.shouldCommit()) {
+                event.operation = joinPoint.getSignature().getName();
+                event.arguments = StringUtils.abbreviate(arguments(joinPoint.getArgs()), MAX_ARGUMENTS_LENGTH);
+                event.sqlStatements = statistics.statements();
+                event.repositoryTime = statistics.time().toNanos();
+                event.commit();
+            }
+        }
+    }
+
+    private static String arguments(Object[] args) {
+        return Arrays.stream(args).map(String::valueOf).collect(Collectors.joining(", "));
+    }
+
+    private static int sizeOf(Object result) {
+        return switch (result) {
+            case null -> 0;
+            case Collection<?> planets -> planets.size();
+            case PlanetPage page -> page.planets().size();
+            case Optional<?> planet -> planet.isPresent() ? 1 : 0;
+            default -> 1;
+        };
+    }
+}
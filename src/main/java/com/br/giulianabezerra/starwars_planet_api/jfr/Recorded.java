@@ -0,0 +1,14 @@
+package com.br.giulianabezerra.starwars_planet_api.jfr;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Emits a {@link PlanetOperationEvent} for each call of the annotated method.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Recorded {
+}
@@ -0,0 +1,66 @@
+package com.br.giulianabezerra.starwars_planet_api.web;
+
+import org.springframework.http.MediaType;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Compact binary representations of planets for service-to-service calls, offered
+ * next to the default JSON. Planet reads answer in one when the accepted media types
+ * prefer it to JSON. Both ways, the bodies are read and written by the Jackson
+ * converters Spring MVC registers for these formats, with the application's settings.
+ */
+enum BinaryFormat {
+    CBOR(MediaType.APPLICATION_CBOR),
+    SMILE(new MediaType("application", "x-jackson-smile"));
+
+    private final MediaType mediaType;
+
+    BinaryFormat(MediaType mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    /**
+     * The binary format the accepted media types prefer to JSON, or {@code null} to
+     * answer in JSON. Each type is weighed by the most specific range matching it, and
+     * JSON wins ties, so {@code *}{@code /*} and a missing header keep JSON.
+     */
+    static BinaryFormat negotiate(List<MediaType> accepted) {
+        BinaryFormat preferred = null;
+        double best = quality(accepted, MediaType.APPLICATION_JSON);
+        for (BinaryFormat format : values()) {
+            double quality = quality(accepted, format.mediaType);
+            if (quality > best) {
+                preferred = format;
+                best = quality;
+            }
+        }
+        return preferred;
+    }
+
+    private static double quality(List<MediaType> accepted, MediaType type) {
+        int specificity = -1;
+        double quality = 0;
+        for (MediaType range : accepted) {
+            if (!range.includes(type)) {
+                continue;
+            }
+            int rangeSpecificity = range.isWildcardType() ? 0 : range.isWildcardSubtype() ? 1 : 2;
+            if (rangeSpecificity > specificity) {
+                specificity = rangeSpecificity;
+                quality = range.getQualityValue();
+            }
+        }
+        return quality;
+    }
+
+    MediaType mediaType() {
+        return mediaType;
+    }
+
+    /** Suffix telling this format's ETags apart from the JSON ones. */
+    String tag() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
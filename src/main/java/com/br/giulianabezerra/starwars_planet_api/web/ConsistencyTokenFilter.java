@@ -0,0 +1,42 @@
+package com.br.giulianabezerra.starwars_planet_api.web;
+
+import com.br.giulianabezerra.starwars_planet_api.jdbc.ConsistencyTokens;
+import com.br.giulianabezerra.starwars_planet_api.jdbc.PrimaryReads;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Reads from the primary while handling a request whose {@code X-Consistency-Token},
+ * returned by a previous write, is still recent enough that a replica may lag behind it.
+ */
+@Component
+public class ConsistencyTokenFilter extends OncePerRequestFilter {
+    public static final String HEADER = "X-Consistency-Token";
+
+    private final ConsistencyTokens tokens;
+
+    public ConsistencyTokenFilter(ConsistencyTokens tokens) {
+        this.tokens = tokens;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (!tokens.requiresPrimary(request.getHeader(HEADER))) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        PrimaryReads.start();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            PrimaryReads.stop();
+        }
+    }
+}
@@ -1,51 +1,306 @@
 package com.br.giulianabezerra.starwars_planet_api.web;
 
 import com.br.giulianabezerra.starwars_planet_api.domain.Planet;
+import com.br.giulianabezerra.starwars_planet_api.domain.PlanetBatchResult;
+import com.br.giulianabezerra.starwars_planet_api.domain.PlanetFacets;
+import com.br.giulianabezerra.starwars_planet_api.domain.PlanetFilter;
+import com.br.giulianabezerra.starwars_planet_api.domain.PlanetIngestQueue;
+import com.br.giulianabezerra.starwars_planet_api.domain.PlanetIngestStatus;
 import com.br.giulianabezerra.starwars_planet_api.domain.PlanetService;
+import com.br.giulianabezerra.starwars_planet_api.domain.PlanetView;
+import com.br.giulianabezerra.starwars_planet_api.jdbc.ConsistencyTokens;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
+import org.springframework.web.accept.ContentNegotiationManager;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.SequenceWriter;
 
+import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
 
 @RestController
 @RequestMapping("/planets")
 public class PlanetController {
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    static final String TOTAL_COUNT_HEADER = "X-Total-Count";
+    private static final String DEFAULT_PAGE_SIZE = "100";
+    private static final int MAX_PAGE_SIZE = 1000;
+    static final int MAX_BATCH_SIZE = 10000;
+    private static final String VARY_HEADERS = HttpHeaders.ACCEPT + ", " + HttpHeaders.ACCEPT_ENCODING;
+    // List tags count writes made through this process only; a restarted or other instance must not match them.
+    private static final String INSTANCE_TAG = Long.toString(System.currentTimeMillis(), 36);
+
     private final PlanetService service;
+    private final ObjectMapper objectMapper;
+    private final ConsistencyTokens consistencyTokens;
+    private final PlanetIngestQueue ingestQueue;
+    private final PlanetJsonCache jsonCache;
+    private final ContentNegotiationManager contentNegotiationManager;
+    private final long listTagTtlMillis;
 
-    public PlanetController(PlanetService service) {
+    public PlanetController(PlanetService service, ObjectMapper objectMapper, ConsistencyTokens consistencyTokens,
+                            PlanetIngestQueue ingestQueue, PlanetJsonCache jsonCache,
+                            ContentNegotiationManager contentNegotiationManager,
+                            @Value("${planets.pages.ttl:5s}") Duration listTagTtl) {
         this.service = service;
+        this.objectMapper = objectMapper;
+        this.consistencyTokens = consistencyTokens;
+        this.ingestQueue = ingestQueue;
+        this.jsonCache = jsonCache;
+        this.contentNegotiationManager = contentNegotiationManager;
+        this.listTagTtlMillis = Math.max(1, listTagTtl.toMillis());
     }
 
     @PostMapping
     public ResponseEntity<Planet> create(@RequestBody @Valid Planet planet) {
         var planetCreated = service.create(planet);
-        return ResponseEntity.status(HttpStatus.CREATED).body(planetCreated);
+        jsonCache.put(PlanetView.of(planetCreated));
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .header(ConsistencyTokenFilter.HEADER, consistencyTokens.issue())
+                .body(planetCreated);
+    }
+
+    @PostMapping("/batch")
+    public ResponseEntity<PlanetBatchResult> createAll(@RequestBody @NotEmpty @Size(max = MAX_BATCH_SIZE) List<Planet> planets) {
+        var result = service.createAll(planets);
+        var status = result.allCreated() ? HttpStatus.CREATED : HttpStatus.MULTI_STATUS;
+        return ResponseEntity.status(status)
+                .header(ConsistencyTokenFilter.HEADER, consistencyTokens.issue())
+                .body(result);
+    }
+
+    /**
+     * Queues the planet to be written in the background and answers 202 with its
+     * tracking id, or 429 when the queue is full.
+     */
+    @PostMapping("/ingest")
+    public ResponseEntity<PlanetIngestStatus> ingest(@RequestBody @Valid Planet planet) {
+        UUID id = ingestQueue.submit(planet);
+        return ResponseEntity.accepted()
+                .location(URI.create("/planets/ingest/" + id))
+                .body(ingestQueue.status(id).orElseThrow());
+    }
+
+    @GetMapping("/ingest/{id}")
+    public ResponseEntity<PlanetIngestStatus> ingestStatus(@PathVariable UUID id) {
+        return ResponseEntity.of(ingestQueue.status(id));
     }
 
     @GetMapping("/id/{id}")
-    public ResponseEntity<Planet> findById(@PathVariable Long id) {
+    public ResponseEntity<?> findById(@PathVariable Long id,
+                                      @RequestHeader (name = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+                                      NativeWebRequest request) {
         var planetFound = service.findById(id);
-        return ResponseEntity.status(HttpStatus.OK).body(planetFound);
+        return planet(planetFound, acceptEncoding, request);
     }
 
     @GetMapping("/name/{name}")
-    public ResponseEntity<Planet> findByName(@PathVariable String name){
+    public ResponseEntity<?> findByName(@PathVariable String name,
+                                        @RequestHeader (name = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+                                        NativeWebRequest request) {
         var planetFound = service.findByName(name);
-        return ResponseEntity.status(HttpStatus.OK).body(planetFound);
+        return planet(planetFound, acceptEncoding, request);
+    }
+
+    @GetMapping(params = "ids")
+    public ResponseEntity<?> findAllById(@RequestParam @NotEmpty @Size(max = MAX_BATCH_SIZE) List<Long> ids,
+                                         NativeWebRequest request, HttpServletResponse response) throws IOException {
+        if (notModified(request)) {
+            return null;
+        }
+        return planets(service.findAll(ids, List.of()), request, response);
+    }
+
+    @PostMapping("/lookup")
+    public ResponseEntity<?> lookup(@RequestBody @Valid PlanetLookup lookup, NativeWebRequest request,
+                                    HttpServletResponse response) throws IOException {
+        return planets(service.findAll(lookup.ids(), lookup.names()), request, response);
     }
 
     @GetMapping
-    public ResponseEntity<List<Planet>> findAll(@RequestParam (required = false) String terrain,
-                                                @RequestParam (required = false) String climate) {
-        var planetList = service.findAll(terrain, climate);
-        return ResponseEntity.ok(planetList);
+    public ResponseEntity<?> findAll(@RequestParam (required = false) String terrain,
+                                     @RequestParam (required = false) String climate,
+                                     @RequestParam (defaultValue = "TAG") PlanetFilter.Match match,
+                                     @RequestParam (required = false) String cursor,
+                                     @RequestParam (defaultValue = DEFAULT_PAGE_SIZE) @Min(1) @Max(MAX_PAGE_SIZE) int limit,
+                                     @RequestParam (defaultValue = "false") boolean count,
+                                     NativeWebRequest request, HttpServletResponse response) throws IOException {
+        if (notModified(request)) {
+            return null;
+        }
+        var filter = new PlanetFilter(terrain, climate, match);
+        var page = service.findAll(filter, cursor, limit);
+        if (page.nextCursor() != null) {
+            response.setHeader(NEXT_CURSOR_HEADER, page.nextCursor());
+        }
+        if (count) {
+            response.setHeader(TOTAL_COUNT_HEADER, String.valueOf(service.count(filter)));
+        }
+        return planets(page.planets(), request, response);
+    }
+
+    @GetMapping("/facets")
+    public ResponseEntity<PlanetFacets> facets(@RequestParam (required = false) String terrain,
+                                               @RequestParam (required = false) String climate,
+                                               @RequestParam (defaultValue = "TAG") PlanetFilter.Match match) {
+        return ResponseEntity.ok(service.facets(new PlanetFilter(terrain, climate, match)));
+    }
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> export() {
+        StreamingResponseBody body = outputStream -> {
+            try (SequenceWriter writer = objectMapper.writer().withRootValueSeparator("\n").writeValues(outputStream)) {
+                service.forEach(writer::write);
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
     }
 
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteById(@PathVariable Long id) {
         service.deleteById(id);
-        return ResponseEntity.noContent().build();
+        jsonCache.evict(id);
+        return ResponseEntity.noContent()
+                .header(ConsistencyTokenFilter.HEADER, consistencyTokens.issue())
+                .build();
+    }
+
+    @DeleteMapping
+    public ResponseEntity<Map<String, Long>> deleteAll(@RequestParam (required = false) String terrain,
+                                                       @RequestParam (required = false) String climate,
+                                                       @RequestParam (defaultValue = "TAG") PlanetFilter.Match match,
+                                                       @RequestParam (required = false) List<Long> ids) {
+        var deleted = service.deleteAll(new PlanetFilter(terrain, climate, match), ids);
+        if (deleted > 0) {
+            jsonCache.evictAll();
+        }
+        return ResponseEntity.ok()
+                .header(ConsistencyTokenFilter.HEADER, consistencyTokens.issue())
+                .body(Map.of("deleted", deleted));
+    }
+
+    /**
+     * A single planet as its cached JSON, gzipped when the client accepts it and that is
+     * smaller, or in the binary format the client prefers. The ETag is the planet's id and
+     * row version, so a client holding it gets a 304 and no body.
+     */
+    private ResponseEntity<?> planet(PlanetView planet, String acceptEncoding, NativeWebRequest request) {
+        BinaryFormat binary = binaryFormat(request);
+        byte[] gzipped = binary == null && acceptsGzip(acceptEncoding) ? jsonCache.gzip(planet) : null;
+        String suffix = binary != null ? "-" + binary.tag() : gzipped != null ? "-gzip" : "";
+        String tag = "\"" + planet.id() + "-" + planet.version() + suffix + "\"";
+        if (request.checkNotModified(tag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(tag)
+                    .header(HttpHeaders.VARY, VARY_HEADERS)
+                    .build();
+        }
+        var response = ResponseEntity.ok()
+                .eTag(tag)
+                .header(HttpHeaders.VARY, VARY_HEADERS);
+        if (binary != null) {
+            return response.contentType(binary.mediaType()).body(planet);
+        }
+        response.contentType(MediaType.APPLICATION_JSON);
+        if (gzipped != null) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(gzipped);
+        }
+        return response.body(jsonCache.json(planet));
+    }
+
+    /**
+     * Answers 304 to a list request whose {@code If-None-Match} has the current catalog
+     * version, before running any query; otherwise tags the response with it. The version
+     * is read before the list, so a write landing in between only makes the tag older.
+     * No tag is given while a replica may still miss the last write, since the list could
+     * be read from it and would then be tagged as newer than it is.
+     * <p>
+     * Writes from other nodes or SQL imports do not advance the version, so tags also
+     * carry the {@code planets.pages.ttl} window they were issued in. Like a cached page,
+     * a tag stops matching once that window is over.
+     */
+    private boolean notModified(NativeWebRequest request) {
+        long version = service.catalogVersion();
+        if (consistencyTokens.requiresPrimary(service.catalogChangedAt())) {
+            return false;
+        }
+        BinaryFormat binary = binaryFormat(request);
+        String suffix = binary == null ? "" : "-" + binary.tag();
+        long window = System.currentTimeMillis() / listTagTtlMillis;
+        return request.checkNotModified("\"" + INSTANCE_TAG + "-" + version + "-" + Long.toString(window, 36) + suffix + "\"");
+    }
+
+    /**
+     * A list of planets in the binary format the client prefers, or else written straight
+     * to the response from the cached JSON of each, returning {@code null} as it is then
+     * already handled. JSON lists are not gzipped here: a gzip member per planet would
+     * outweigh the savings.
+     */
+    private ResponseEntity<?> planets(List<PlanetView> planets, NativeWebRequest request, HttpServletResponse response)
+            throws IOException {
+        BinaryFormat binary = binaryFormat(request);
+        if (binary != null) {
+            return ResponseEntity.ok()
+                    .header(HttpHeaders.VARY, HttpHeaders.ACCEPT)
+                    .contentType(binary.mediaType())
+                    .body(planets);
+        }
+        response.setStatus(HttpStatus.OK.value());
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        jsonCache.write(planets, response.getOutputStream());
+        return null;
+    }
+
+    /** The binary format preferred by the media types Spring MVC resolves for the request. */
+    private BinaryFormat binaryFormat(NativeWebRequest request) {
+        try {
+            return BinaryFormat.negotiate(contentNegotiationManager.resolveMediaTypes(request));
+        } catch (HttpMediaTypeNotAcceptableException ex) {
+            return null;
+        }
+    }
+
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            int parameters = coding.indexOf(';');
+            String name = (parameters < 0 ? coding : coding.substring(0, parameters)).trim();
+            if (name.equalsIgnoreCase("gzip")) {
+                return parameters < 0 || quality(coding.substring(parameters + 1)) > 0;
+            }
+        }
+        return false;
+    }
+
+    private static double quality(String parameter) {
+        String value = parameter.trim();
+        if (!value.startsWith("q=")) {
+            return 1;
+        }
+        try {
+            return Double.parseDouble(value.substring(2).trim());
+        } catch (NumberFormatException ex) {
+            return 0;
+        }
     }
 }
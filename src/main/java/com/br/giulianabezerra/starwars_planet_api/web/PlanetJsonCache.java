@@ -0,0 +1,133 @@
+package com.br.giulianabezerra.starwars_planet_api.web;
+
+import com.br.giulianabezerra.starwars_planet_api.domain.PlanetView;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The JSON of each planet, encoded once to UTF-8 bytes so that reads write bytes
+ * instead of running Jackson. A gzipped copy is made on the first request accepting
+ * gzip, and only kept when it is smaller: the gzip header and trailer outweigh the
+ * savings on most planets. Entries are kept per id together with the view they were
+ * encoded from and only reused while it is still equal to the planet being served, so
+ * a planet changed behind the cache's back is encoded again rather than served stale.
+ */
+@Component
+public class PlanetJsonCache {
+    private static final byte[] EMPTY_ARRAY = {'[', ']'};
+    private static final byte[] NOT_SMALLER = {};
+
+    private final ObjectMapper objectMapper;
+    private final Cache<Long, Encoded> planets;
+
+    public PlanetJsonCache(ObjectMapper objectMapper,
+                           @Value("${planets.cache.maximum-size:10000}") long maximumSize) {
+        this.objectMapper = objectMapper;
+        this.planets = Caffeine.newBuilder().maximumSize(maximumSize).build();
+    }
+
+    public byte[] json(PlanetView planet) {
+        return encoded(planet).json();
+    }
+
+    /** The gzipped JSON, or {@code null} when it would not be smaller than the JSON. */
+    public byte[] gzip(PlanetView planet) {
+        return encoded(planet).gzip();
+    }
+
+    /** Writes {@code planets} as a JSON array, one cached encoding after another. */
+    public void write(List<PlanetView> planets, OutputStream out) throws IOException {
+        if (planets.isEmpty()) {
+            out.write(EMPTY_ARRAY);
+            return;
+        }
+        char separator = '[';
+        for (PlanetView planet : planets) {
+            out.write(separator);
+            out.write(json(planet));
+            separator = ',';
+        }
+        out.write(']');
+    }
+
+    /** Encodes a planet that was just written, so its first read finds it ready. */
+    public void put(PlanetView planet) {
+        if (planet.id() != null) {
+            planets.put(planet.id(), encode(planet));
+        }
+    }
+
+    public void evict(Long id) {
+        planets.invalidate(id);
+    }
+
+    public void evictAll() {
+        planets.invalidateAll();
+    }
+
+    private Encoded encoded(PlanetView planet) {
+        if (planet.id() == null) {
+            return encode(planet);
+        }
+        Encoded cached = planets.getIfPresent(planet.id());
+        if (cached != null && cached.planet().equals(planet)) {
+            return cached;
+        }
+        Encoded encoded = encode(planet);
+        planets.put(planet.id(), encoded);
+        return encoded;
+    }
+
+    private Encoded encode(PlanetView planet) {
+        return new Encoded(planet, objectMapper.writeValueAsBytes(planet));
+    }
+
+    private static byte[] compress(byte[] json) {
+        ByteArrayOutputStream gzip = new ByteArrayOutputStream(json.length);
+        try (GZIPOutputStream out = new GZIPOutputStream(gzip)) {
+            out.write(json);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return gzip.size() < json.length ? gzip.toByteArray() : NOT_SMALLER;
+    }
+
+    private static final class Encoded {
+        private final PlanetView planet;
+        private final byte[] json;
+        // Racing first calls may both compress; either result is the same.
+        private volatile byte[] gzip;
+
+        Encoded(PlanetView planet, byte[] json) {
+            this.planet = planet;
+            this.json = json;
+        }
+
+        PlanetView planet() {
+            return planet;
+        }
+
+        byte[] json() {
+            return json;
+        }
+
+        byte[] gzip() {
+            byte[] gzipped = gzip;
+            if (gzipped == null) {
+                gzipped = compress(json);
+                gzip = gzipped;
+            }
+            return gzipped == NOT_SMALLER ? null : gzipped;
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.br.giulianabezerra.starwars_planet_api.web;
+
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+/** Body of {@code POST /planets/lookup}: the ids and/or names of the planets wanted. */
+public record PlanetLookup(@Size(max = PlanetController.MAX_BATCH_SIZE) List<Long> ids,
+                           @Size(max = PlanetController.MAX_BATCH_SIZE) List<String> names) {
+}
@@ -0,0 +1,123 @@
+package com.br.giulianabezerra.starwars_planet_api.web;
+
+import com.br.giulianabezerra.starwars_planet_api.jdbc.SqlStatistics;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+
+/**
+ * Logs the SQL statements each request ran in a debug log line, and warns when a
+ * request runs more than {@code planets.sql.statement-warn-threshold}, which is
+ * usually an N+1 query.
+ * <p>
+ * With {@code planets.sql.response-headers}, off by default since they tell any client
+ * how its request hit the database, they are also reported in the {@code X-SQL-Statements}
+ * and {@code X-SQL-Time} (milliseconds) headers. The headers carry what ran before the
+ * body started; statements run while streaming a body only show up in the log line.
+ */
+@Component
+public class SqlStatisticsFilter extends OncePerRequestFilter {
+    public static final String STATEMENTS_HEADER = "X-SQL-Statements";
+    public static final String TIME_HEADER = "X-SQL-Time";
+
+    private static final Logger log = LoggerFactory.getLogger(SqlStatisticsFilter.class);
+
+    private final int statementWarnThreshold;
+    private final boolean responseHeaders;
+
+    public SqlStatisticsFilter(@Value("${planets.sql.statement-warn-threshold:20}") int statementWarnThreshold,
+                               @Value("${planets.sql.response-headers:false}") boolean responseHeaders) {
+        this.statementWarnThreshold = statementWarnThreshold;
+        this.responseHeaders = responseHeaders;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        SqlStatistics statistics = SqlStatistics.start();
+        StatisticsResponse statisticsResponse = responseHeaders ? new StatisticsResponse(response, statistics) : null;
+        try {
+            filterChain.doFilter(request, statisticsResponse != null ? statisticsResponse : response);
+        } finally {
+            SqlStatistics.stop();
+            if (statisticsResponse != null) {
+                statisticsResponse.writeHeaders();
+            }
+            if (statistics.statements() > statementWarnThreshold) {
+                log.warn("{} {} ran {}, more than the {} expected", request.getMethod(), request.getRequestURI(),
+                        statistics, statementWarnThreshold);
+            } else {
+                log.debug("{} {} ran {}", request.getMethod(), request.getRequestURI(), statistics);
+            }
+        }
+    }
+
+    /**
+     * Adds the headers right before the response is committed, while they can still be set.
+     */
+    private static class StatisticsResponse extends HttpServletResponseWrapper {
+        private final SqlStatistics statistics;
+        private boolean written;
+
+        StatisticsResponse(HttpServletResponse response, SqlStatistics statistics) {
+            super(response);
+            this.statistics = statistics;
+        }
+
+        void writeHeaders() {
+            if (written || isCommitted()) {
+                return;
+            }
+            written = true;
+            setHeader(STATEMENTS_HEADER, Integer.toString(statistics.statements()));
+            setHeader(TIME_HEADER, "%.3f".formatted(statistics.time().toNanos() / 1e6));
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            writeHeaders();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            writeHeaders();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            writeHeaders();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            writeHeaders();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            writeHeaders();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            writeHeaders();
+            super.sendRedirect(location);
+        }
+    }
+}
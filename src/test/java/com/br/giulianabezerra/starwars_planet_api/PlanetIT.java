@@ -1,23 +1,33 @@
 package com.br.giulianabezerra.starwars_planet_api;
 
 import com.br.giulianabezerra.starwars_planet_api.domain.Planet;
+import com.br.giulianabezerra.starwars_planet_api.domain.PlanetBatchResult;
+import com.br.giulianabezerra.starwars_planet_api.domain.PlanetFacets;
+import com.br.giulianabezerra.starwars_planet_api.domain.PlanetIngestStatus;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalManagementPort;
 import org.springframework.boot.test.web.server.LocalServerPort;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.jdbc.Sql;
 import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestClient;
 
+import java.time.Duration;
 import java.util.List;
+import java.util.Map;
 
 import static com.br.giulianabezerra.starwars_planet_api.commom.PlanetConstants.*;
+import static com.br.giulianabezerra.starwars_planet_api.commom.StatementBudget.assertWithinStatementBudget;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.entry;
+import static org.awaitility.Awaitility.await;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
 @ActiveProfiles("it")
@@ -27,6 +37,9 @@ public class PlanetIT {
     @LocalServerPort
     private int port;
 
+    @LocalManagementPort
+    private int managementPort;
+
     private RestClient restClient;
 
     @BeforeEach
@@ -50,6 +63,8 @@ public class PlanetIT {
         assertThat(sut.getBody().getName()).isEqualTo(PLANET.getName());
         assertThat(sut.getBody().getTerrain()).isEqualTo(PLANET.getTerrain());
         assertThat(sut.getBody().getClimate()).isEqualTo(PLANET.getClimate());
+        // the planet and one insert per tag table
+        assertWithinStatementBudget(sut, 3);
     }
 
     @Test
@@ -78,6 +93,49 @@ public class PlanetIT {
         ).isInstanceOf(HttpClientErrorException.Conflict.class);
     }
 
+    @Test
+    public void createPlanets_WithExistingName_ReportsConflictPerItem() {
+        List<Planet> planets = List.of(
+                PLANET,
+                new Planet(ALDERAAN.getName(), ALDERAAN.getClimate(), ALDERAAN.getTerrain()));
+
+        ResponseEntity<PlanetBatchResult> sut = restClient
+                .post()
+                .uri("/batch")
+                .body(planets)
+                .retrieve()
+                .toEntity(PlanetBatchResult.class);
+
+        assertThat(sut.getStatusCode()).isEqualTo(HttpStatus.MULTI_STATUS);
+        assertThat(sut.getBody().items()).extracting(PlanetBatchResult.Item::status)
+                .containsExactly(PlanetBatchResult.Status.CREATED, PlanetBatchResult.Status.CONFLICT);
+        assertThat(sut.getBody().items().getFirst().planet().getId()).isNotNull();
+        // the name check, then one batch per table
+        assertWithinStatementBudget(sut, 4);
+    }
+
+    @Test
+    public void ingestPlanets_ReportsCreatedAndConflictPerTrackingId() {
+        ResponseEntity<PlanetIngestStatus> created = restClient.post().uri("/ingest").body(PLANET)
+                .retrieve().toEntity(PlanetIngestStatus.class);
+        ResponseEntity<PlanetIngestStatus> conflict = restClient.post().uri("/ingest")
+                .body(new Planet(ALDERAAN.getName(), ALDERAAN.getClimate(), ALDERAAN.getTerrain()))
+                .retrieve().toEntity(PlanetIngestStatus.class);
+
+        assertThat(created.getStatusCode()).isEqualTo(HttpStatus.ACCEPTED);
+        assertThat(created.getHeaders().getLocation()).hasToString("/planets/ingest/" + created.getBody().id());
+        assertThat(awaitOutcome(created.getBody()).state()).isEqualTo(PlanetIngestStatus.State.CREATED);
+        assertThat(awaitOutcome(conflict.getBody()).state()).isEqualTo(PlanetIngestStatus.State.CONFLICT);
+        assertThat(restClient.get().uri("/name/" + PLANET.getName()).retrieve().toEntity(Planet.class).getStatusCode())
+                .isEqualTo(HttpStatus.OK);
+    }
+
+    private PlanetIngestStatus awaitOutcome(PlanetIngestStatus accepted) {
+        return await().atMost(Duration.ofSeconds(10))
+                .until(() -> restClient.get().uri("/ingest/" + accepted.id()).retrieve().body(PlanetIngestStatus.class),
+                        status -> status.state() != PlanetIngestStatus.State.PENDING);
+    }
+
     @Test
     public void findById_ByExistingId_ReturnsPlanet() {
         ResponseEntity<Planet> sut =
@@ -89,6 +147,7 @@ public class PlanetIT {
 
         assertThat(sut.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(sut.getBody()).isEqualTo(YAVIN_IV);
+        assertWithinStatementBudget(sut, 1);
     }
 
     @Test
@@ -102,6 +161,20 @@ public class PlanetIT {
         ).isInstanceOf(HttpClientErrorException.NotFound.class);
     }
 
+    @Test
+    public void lookupPlanets_ByIdsAndNames_ReturnsPlanetsInRequestedOrder() {
+        ResponseEntity<Planet[]> sut = restClient
+                .post()
+                .uri("/lookup")
+                .body(Map.of("ids", List.of(3, 99), "names", List.of("Tatooine")))
+                .retrieve()
+                .toEntity(Planet[].class);
+
+        assertThat(sut.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(sut.getBody()).containsExactly(YAVIN_IV, TATOOINE);
+        assertWithinStatementBudget(sut, 2);
+    }
+
     @Test
     public void findByName_ByExistingName_ReturnsPlanet() {
         ResponseEntity<Planet> sut = restClient
@@ -112,6 +185,7 @@ public class PlanetIT {
 
         assertThat(sut.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(sut.getBody()).isEqualTo(YAVIN_IV);
+        assertWithinStatementBudget(sut, 2);
     }
 
     @Test
@@ -194,6 +268,57 @@ public class PlanetIT {
         assertThat(sut.getBody()).isEmpty();
     }
 
+    @Test
+    public void listPlanets_WithLimit_ReturnsPagesLinkedByCursor() {
+        ResponseEntity<List<Planet>> firstPage = restClient
+                .get()
+                .uri("?limit={limit}&count=true", 2)
+                .retrieve()
+                .toEntity(new ParameterizedTypeReference<List<Planet>>() {});
+
+        assertThat(firstPage.getBody()).containsExactly(TATOOINE, ALDERAAN);
+        assertThat(firstPage.getHeaders().getFirst("X-Total-Count")).isEqualTo("3");
+        assertWithinStatementBudget(firstPage, 2);
+        String cursor = firstPage.getHeaders().getFirst("X-Next-Cursor");
+        assertThat(cursor).isNotNull();
+
+        ResponseEntity<List<Planet>> secondPage = restClient
+                .get()
+                .uri("?limit={limit}&cursor={cursor}", 2, cursor)
+                .retrieve()
+                .toEntity(new ParameterizedTypeReference<List<Planet>>() {});
+
+        assertThat(secondPage.getBody()).containsExactly(YAVIN_IV);
+        assertThat(secondPage.getHeaders().getFirst("X-Next-Cursor")).isNull();
+    }
+
+    @Test
+    public void facets_ByTerrain_ReturnsCountsOfMatchingPlanets() {
+        ResponseEntity<PlanetFacets> sut = restClient
+                .get()
+                .uri("/facets?terrain={terrain}", "jungle")
+                .retrieve()
+                .toEntity(PlanetFacets.class);
+
+        assertThat(sut.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(sut.getBody().climate()).containsOnly(entry("temperate", 1L), entry("tropical", 1L));
+        assertThat(sut.getBody().terrain()).containsOnly(entry("jungle", 1L), entry("rainforest", 1L));
+        assertWithinStatementBudget(sut, 2);
+    }
+
+    @Test
+    public void exportPlanets_ReturnsNdjson() {
+        ResponseEntity<String> sut = restClient
+                .get()
+                .uri("/export")
+                .retrieve()
+                .toEntity(String.class);
+
+        assertThat(sut.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(sut.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_NDJSON);
+        assertThat(sut.getBody().lines()).hasSize(3);
+    }
+
     @Test
     public void removePlanet_WithExistingId_Returns204NoContent() {
         ResponseEntity<Void> sut = restClient
@@ -203,6 +328,7 @@ public class PlanetIT {
                 .toBodilessEntity();
 
         assertThat(sut.getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
+        assertWithinStatementBudget(sut, 1);
     }
 
     @Test
@@ -215,4 +341,61 @@ public class PlanetIT {
                         .toBodilessEntity()
         ).isInstanceOf(HttpClientErrorException.NotFound.class);
     }
+
+    @Test
+    public void scrapePrometheus_ExposesRequestServiceRepositoryPoolAndHibernateMeters() {
+        restClient.get().uri("/id/{id}", 1).retrieve().toBodilessEntity();
+
+        String sut = RestClient.create("http://localhost:" + managementPort)
+                .get()
+                .uri("/actuator/prometheus")
+                .retrieve()
+                .body(String.class);
+
+        assertThat(sut)
+                .contains("http_server_requests_seconds_bucket{")
+                .contains("uri=\"/planets/id/{id}\"")
+                .containsPattern("planets_service_seconds_bucket\\{[^}]*method=\"findById\"")
+                .containsPattern("spring_data_repository_invocations_seconds_bucket\\{[^}]*method=\"findViewById\"")
+                .contains("hikaricp_connections_acquire_seconds_bucket{")
+                .contains("hibernate_statements_total{");
+    }
+
+    @Test
+    public void flightRecorder_StartDumpStop_ReturnsRecording() {
+        RestClient actuator = RestClient.create("http://localhost:" + managementPort + "/actuator/jfr");
+
+        Map<String, Object> started = actuator.post()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(Map.of("settings", "default"))
+                .retrieve().body(new ParameterizedTypeReference<>() {});
+        restClient.get().uri("/id/{id}", 1).retrieve().toBodilessEntity();
+        byte[] recording = actuator.get().retrieve().body(byte[].class);
+        Map<String, Object> stopped = actuator.delete().retrieve().body(new ParameterizedTypeReference<>() {});
+
+        assertThat(started).containsEntry("state", "RUNNING");
+        assertThat(recording).startsWith('F', 'L', 'R', 0);
+        assertThat(stopped).containsEntry("state", "STOPPED");
+    }
+
+    @Test
+    public void flightRecorder_WithUnknownSettings_Returns400() {
+        assertThatThrownBy(() -> RestClient.create("http://localhost:" + managementPort + "/actuator/jfr")
+                .post()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(Map.of("settings", "/tmp/custom.jfc"))
+                .retrieve()
+                .toBodilessEntity()
+        ).isInstanceOf(HttpClientErrorException.BadRequest.class);
+    }
+
+    @Test
+    public void actuator_IsNotServedOnApplicationPort() {
+        assertThatThrownBy(() -> RestClient.create("http://localhost:" + port)
+                .get()
+                .uri("/actuator/jfr")
+                .retrieve()
+                .toBodilessEntity()
+        ).isInstanceOf(HttpClientErrorException.NotFound.class);
+    }
 }
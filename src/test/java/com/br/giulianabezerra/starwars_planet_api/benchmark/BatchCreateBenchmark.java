@@ -0,0 +1,69 @@
+package com.br.giulianabezerra.starwars_planet_api.benchmark;
+
+import com.br.giulianabezerra.starwars_planet_api.domain.Planet;
+import com.br.giulianabezerra.starwars_planet_api.domain.PlanetRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.client.RestClient;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares N single {@code POST /planets} calls with one {@code POST /planets/batch}.
+ * Run with {@code mvn test -Pbenchmark}; set BENCHMARK_DB_URL to measure against MySQL.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("benchmark")
+public class BatchCreateBenchmark {
+    private static final int PLANETS = Integer.getInteger("benchmark.planets", 2000);
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private PlanetRepository repository;
+
+    private RestClient restClient;
+
+    @BeforeEach
+    void setUp() {
+        restClient = RestClient.builder()
+                .baseUrl("http://localhost:" + port + "/planets")
+                .build();
+        repository.deleteAllInBatch();
+    }
+
+    @Test
+    public void batchCreate_IsFasterThanSingleCreates() {
+        long singleNanos = time(() -> planets("single").forEach(planet ->
+                restClient.post().uri("").body(planet).retrieve().toBodilessEntity()));
+
+        long batchNanos = time(() ->
+                restClient.post().uri("/batch").body(planets("batch")).retrieve().toBodilessEntity());
+
+        System.out.printf("%d planets: single POSTs %d ms, batch POST %d ms (%.1fx)%n",
+                PLANETS, singleNanos / 1_000_000, batchNanos / 1_000_000, (double) singleNanos / batchNanos);
+
+        assertThat(repository.count()).isEqualTo(2L * PLANETS);
+        assertThat(batchNanos).isLessThan(singleNanos);
+    }
+
+    private static List<Planet> planets(String prefix) {
+        return IntStream.range(0, PLANETS)
+                .mapToObj(i -> new Planet(prefix + "-" + i, "temperate", "grasslands, mountains"))
+                .toList();
+    }
+
+    private static long time(Runnable runnable) {
+        long start = System.nanoTime();
+        runnable.run();
+        return System.nanoTime() - start;
+    }
+}
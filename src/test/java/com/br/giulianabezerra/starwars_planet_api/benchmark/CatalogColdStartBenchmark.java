@@ -0,0 +1,101 @@
+package com.br.giulianabezerra.starwars_planet_api.benchmark;
+
+import com.br.giulianabezerra.starwars_planet_api.StarwarsPlanetApiApplication;
+import com.br.giulianabezerra.starwars_planet_api.domain.Planet;
+import com.br.giulianabezerra.starwars_planet_api.domain.PlanetCatalog;
+import com.br.giulianabezerra.starwars_planet_api.domain.PlanetRepository;
+import com.br.giulianabezerra.starwars_planet_api.domain.PlanetService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Limit;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Boot time with the in-memory catalog on, at {@code benchmark.planets} rows (1M by
+ * default): once loading the catalog from the database, then once from the snapshot
+ * file the first boot wrote on shutdown. Both boots run in the same JVM after a
+ * seeding boot, so class loading is warm for both and the difference is the catalog load.
+ * <p>
+ * Run with {@code mvn test -Pbenchmark -Dtest=CatalogColdStartBenchmark}. The rows
+ * live in an H2 file database under a temporary directory; set BENCHMARK_DB_URL to
+ * measure against MySQL.
+ */
+public class CatalogColdStartBenchmark {
+    private static final int PLANETS = Integer.getInteger("benchmark.planets", 1_000_000);
+    private static final int INSERT_CHUNK = 10_000;
+    private static final String[] TERRAINS = {"desert", "grasslands, mountains", "jungle, rainforest", "tundra, ice caves", "ocean"};
+
+    @TempDir
+    private Path tempDir;
+
+    @Test
+    public void bootWithSnapshotFile_IsFasterThanLoadingFromDatabase() throws Exception {
+        String url = System.getenv().getOrDefault("BENCHMARK_DB_URL",
+                "jdbc:h2:file:" + tempDir.resolve("planets") + ";MODE=MySQL");
+        Path snapshotFile = tempDir.resolve("catalog.bin");
+
+        try (ConfigurableApplicationContext context = boot(url, false, "")) {
+            PlanetRepository repository = context.getBean(PlanetRepository.class);
+            repository.deleteAllInBatch();
+            for (int from = 0; from < PLANETS; from += INSERT_CHUNK) {
+                repository.insertAll(IntStream.range(from, Math.min(from + INSERT_CHUNK, PLANETS))
+                        .mapToObj(i -> new Planet("cold-" + i, "temperate", TERRAINS[i % TERRAINS.length]))
+                        .toList());
+            }
+        }
+
+        long withoutFileNanos;
+        long databaseLoadNanos;
+        long firstId;
+        long start = System.nanoTime();
+        try (ConfigurableApplicationContext context = boot(url, true, snapshotFile.toString())) {
+            withoutFileNanos = System.nanoTime() - start;
+            firstId = context.getBean(PlanetRepository.class).findNamesAfter(0L, Limit.of(1)).getFirst().id();
+            PlanetCatalog catalog = context.getBean(PlanetCatalog.class);
+            assertThat(catalog.current().size()).isEqualTo(PLANETS);
+            long loadStart = System.nanoTime();
+            catalog.reload();
+            databaseLoadNanos = System.nanoTime() - loadStart;
+        }
+        // Written on shutdown of the boot above.
+        assertThat(snapshotFile).exists();
+
+        start = System.nanoTime();
+        try (ConfigurableApplicationContext context = boot(url, true, snapshotFile.toString())) {
+            long withFileNanos = System.nanoTime() - start;
+            assertThat(context.getBean(PlanetService.class).findById(firstId).name()).isEqualTo("cold-0");
+            PlanetCatalog catalog = context.getBean(PlanetCatalog.class);
+            assertThat(catalog.reloadIfStale()).isFalse();
+            long loadStart = System.nanoTime();
+            catalog.readSnapshotFile();
+            long fileLoadNanos = System.nanoTime() - loadStart;
+
+            System.out.printf("%d planets: boot loading the catalog from the database %d ms, from a %d MB snapshot file %d ms (%.1fx)%n",
+                    PLANETS, withoutFileNanos / 1_000_000, Files.size(snapshotFile) >> 20, withFileNanos / 1_000_000,
+                    (double) withoutFileNanos / withFileNanos);
+            System.out.printf("catalog load alone, warm: database %d ms, snapshot file %d ms%n",
+                    databaseLoadNanos / 1_000_000, fileLoadNanos / 1_000_000);
+            assertThat(withFileNanos).isLessThan(withoutFileNanos);
+        }
+    }
+
+    private static ConfigurableApplicationContext boot(String url, boolean catalog, String snapshotFile) {
+        return new SpringApplicationBuilder(StarwarsPlanetApiApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("benchmark")
+                .properties("logging.level.root=warn")
+                // Arguments, to override the in-memory database and create-drop of the benchmark profile.
+                .run("--spring.datasource.url=" + url,
+                        "--spring.jpa.hibernate.ddl-auto=update",
+                        "--planets.catalog.enabled=" + catalog,
+                        "--planets.catalog.snapshot-file=" + snapshotFile);
+    }
+}
@@ -0,0 +1,72 @@
+package com.br.giulianabezerra.starwars_planet_api.benchmark;
+
+import com.br.giulianabezerra.starwars_planet_api.domain.PlanetCatalogSnapshot;
+import com.br.giulianabezerra.starwars_planet_api.domain.PlanetView;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.ref.Reference;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Retained heap of the in-memory catalog for {@code benchmark.planets} planets (1M by
+ * default), next to the same planets held as views in a list with id and name maps.
+ * Rows are built as a JDBC driver returns them, every string its own instance.
+ * Run with {@code mvn test -Pbenchmark -Dtest=CatalogFootprintBenchmark}; 1M planets need about 1 GB of heap.
+ */
+public class CatalogFootprintBenchmark {
+    private static final int PLANETS = Integer.getInteger("benchmark.planets", 1_000_000);
+    private static final String[] CLIMATES = {"arid", "temperate", "temperate, tropical", "frozen", "murky"};
+    private static final String[] TERRAINS = {"desert", "grasslands, mountains", "jungle, rainforest", "tundra, ice caves", "ocean"};
+
+    private static final MemoryMXBean MEMORY = ManagementFactory.getMemoryMXBean();
+
+    @Test
+    public void catalog_RetainsLessThanViewsWithMaps() throws InterruptedException {
+        long catalogBytes = retainedBytes(() -> PlanetCatalogSnapshot.of(rows()));
+        long viewBytes = retainedBytes(() -> {
+            List<PlanetView> views = rows();
+            Map<Long, PlanetView> byId = new HashMap<>();
+            Map<String, PlanetView> byName = new HashMap<>();
+            views.forEach(view -> {
+                byId.put(view.id(), view);
+                byName.put(view.name(), view);
+            });
+            return List.of(views, byId, byName);
+        });
+
+        System.out.printf("%d planets: catalog %d MB (%d B/planet), views with maps %d MB (%d B/planet)%n",
+                PLANETS, catalogBytes >> 20, catalogBytes / PLANETS, viewBytes >> 20, viewBytes / PLANETS);
+        assertThat(catalogBytes).isLessThan(viewBytes);
+    }
+
+    private static List<PlanetView> rows() {
+        return IntStream.range(0, PLANETS)
+                .mapToObj(i -> new PlanetView(i + 1L, "planet-" + i,
+                        new String(CLIMATES[i % CLIMATES.length]), new String(TERRAINS[i % TERRAINS.length])))
+                .toList();
+    }
+
+    private static long retainedBytes(Supplier<Object> build) throws InterruptedException {
+        long before = usedAfterGc();
+        Object retained = build.get();
+        long after = usedAfterGc();
+        Reference.reachabilityFence(retained);
+        return after - before;
+    }
+
+    private static long usedAfterGc() throws InterruptedException {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(100);
+        }
+        return MEMORY.getHeapMemoryUsage().getUsed();
+    }
+}
@@ -0,0 +1,334 @@
+package com.br.giulianabezerra.starwars_planet_api.benchmark;
+
+import com.br.giulianabezerra.starwars_planet_api.StarwarsPlanetApiApplication;
+import com.br.giulianabezerra.starwars_planet_api.domain.Planet;
+import com.br.giulianabezerra.starwars_planet_api.domain.PlanetName;
+import com.br.giulianabezerra.starwars_planet_api.domain.PlanetRepository;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.server.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Limit;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Open-loop load test: boots the application against the embedded benchmark database, seeds
+ * {@code load.planets} planets and sends a mix of operations at a fixed arrival rate. Latency
+ * is measured from when each request was due to be sent, not from when it was sent, so a stall
+ * shows up in the percentiles instead of silently lowering the rate (coordinated omission).
+ * <p>
+ * Run with {@code mvn -Pload test}; tune with {@code -Dload.rate=200 -Dload.duration-seconds=30
+ * -Dload.planets=10000 -Dload.mix=create:10,getById:40,getByName:20,list:25,delete:5}.
+ * Percentile distributions are written to {@code target/load/*.hgrm}. Without a baseline the run
+ * only fails on errors. Latencies depend on the machine, so the baseline is not part of the
+ * repository: record one on the host that gates with {@code -Dload.baseline=<file>
+ * -Dload.update-baseline=true}, then pass the same {@code -Dload.baseline} there. The run fails
+ * when p99 or throughput of an operation is worse than it by more than {@code load.p99-tolerance}
+ * or {@code load.throughput-tolerance}; it is only compared when rate, mix and planets match it.
+ */
+public class LoadGenerator {
+    private static final int RATE = Integer.getInteger("load.rate", 200);
+    private static final Duration DURATION = Duration.ofSeconds(Long.getLong("load.duration-seconds", 30));
+    private static final Duration WARMUP = Duration.ofSeconds(Long.getLong("load.warmup-seconds", 10));
+    private static final int PLANETS = Integer.getInteger("load.planets", 10_000);
+    private static final String MIX = System.getProperty("load.mix", "create:10,getById:40,getByName:20,list:25,delete:5");
+    private static final double P99_TOLERANCE = Double.parseDouble(System.getProperty("load.p99-tolerance", "0.5"));
+    private static final double THROUGHPUT_TOLERANCE = Double.parseDouble(System.getProperty("load.throughput-tolerance", "0.05"));
+    private static final String BASELINE = System.getProperty("load.baseline");
+    private static final Path REPORTS = Path.of("target", "load");
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(10);
+    private static final Pattern ID = Pattern.compile("\"id\"\\s*:\\s*(\\d+)");
+
+    enum Operation {
+        CREATE("create"), GET_BY_ID("getById"), GET_BY_NAME("getByName"), LIST("list"), DELETE("delete");
+
+        private final String key;
+
+        Operation(String key) {
+            this.key = key;
+        }
+
+        static Operation of(String key) {
+            return Arrays.stream(values())
+                    .filter(operation -> operation.key.equals(key))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException("Unknown operation in load.mix: " + key));
+        }
+
+        @Override
+        public String toString() {
+            return key;
+        }
+    }
+
+    @Test
+    public void fixedArrivalRate_StaysWithinBaseline() throws Exception {
+        Map<Operation, Integer> mix = parseMix(MIX);
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(StarwarsPlanetApiApplication.class)
+                .profiles("benchmark")
+                .properties("server.port=0", "logging.level.root=warn")
+                .run()) {
+            PlanetRepository repository = context.getBean(PlanetRepository.class);
+            repository.insertAll(IntStream.range(0, PLANETS)
+                    .mapToObj(i -> new Planet("load-" + i, i % 2 == 0 ? "temperate" : "arid", "grasslands, mountains"))
+                    .toList());
+            List<PlanetName> seeded = repository.findNamesAfter(0L, Limit.of(PLANETS));
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+
+            // Reads target the first 90% of the planets; deletes take created planets first, then the rest.
+            Target target = new Target(URI.create("http://localhost:" + port + "/planets"),
+                    seeded.subList(0, seeded.size() * 9 / 10),
+                    new ConcurrentLinkedDeque<>(seeded.subList(seeded.size() * 9 / 10, seeded.size()).stream()
+                            .map(PlanetName::id)
+                            .toList()));
+
+            run(target, mix, WARMUP);
+            Map<Operation, Result> results = run(target, mix, DURATION);
+
+            report(results);
+            gate(mix, results);
+        }
+    }
+
+    private static Map<Operation, Result> run(Target target, Map<Operation, Integer> mix, Duration duration) throws Exception {
+        Map<Operation, Result> results = new EnumMap<>(Operation.class);
+        mix.keySet().forEach(operation -> results.put(operation, new Result()));
+        Operation[] schedule = schedule(mix);
+        long interval = 1_000_000_000L / RATE;
+        long requests = duration.toNanos() / interval;
+
+        long start = System.nanoTime();
+        AtomicLong lastCompletion = new AtomicLong(start);
+        // The senders finish before the client is closed, so no request is cut off.
+        try (HttpClient client = HttpClient.newHttpClient();
+             ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long i = 0; i < requests; i++) {
+                long intended = start + i * interval;
+                long delay = intended - System.nanoTime();
+                if (delay > 0) {
+                    LockSupport.parkNanos(delay);
+                }
+                Operation operation = schedule[(int) (i % schedule.length)];
+                Result result = results.get(operation);
+                senders.submit(() -> {
+                    boolean ok = send(client, target, operation);
+                    long now = System.nanoTime();
+                    lastCompletion.accumulateAndGet(now, Math::max);
+                    if (ok) {
+                        result.latencies.recordValue(now - intended);
+                    } else {
+                        result.errors.increment();
+                    }
+                });
+            }
+        }
+        Duration elapsed = Duration.ofNanos(lastCompletion.get() - start);
+        results.values().forEach(result -> result.elapsed = elapsed);
+        return results;
+    }
+
+    /**
+     * The operations of one second's worth of requests, spread evenly by their share of the mix.
+     */
+    private static Operation[] schedule(Map<Operation, Integer> mix) {
+        int total = mix.values().stream().mapToInt(Integer::intValue).sum();
+        List<Operation> schedule = new ArrayList<>();
+        double[] credit = new double[Operation.values().length];
+        for (int i = 0; i < total; i++) {
+            Operation next = null;
+            for (Map.Entry<Operation, Integer> share : mix.entrySet()) {
+                credit[share.getKey().ordinal()] += (double) share.getValue() / total;
+                if (next == null || credit[share.getKey().ordinal()] > credit[next.ordinal()]) {
+                    next = share.getKey();
+                }
+            }
+            credit[next.ordinal()] -= 1;
+            schedule.add(next);
+        }
+        return schedule.toArray(Operation[]::new);
+    }
+
+    private static boolean send(HttpClient client, Target target, Operation operation) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        PlanetName planet = target.reads().get(random.nextInt(target.reads().size()));
+        HttpRequest.Builder request = HttpRequest.newBuilder().timeout(REQUEST_TIMEOUT);
+        try {
+            switch (operation) {
+                case CREATE -> {
+                    String name = "load-new-" + target.created().incrementAndGet();
+                    HttpResponse<String> response = client.send(request.uri(target.base())
+                            .header("Content-Type", "application/json")
+                            .POST(HttpRequest.BodyPublishers.ofString(
+                                    "{\"name\":\"" + name + "\",\"climate\":\"arid\",\"terrain\":\"desert\"}"))
+                            .build(), HttpResponse.BodyHandlers.ofString());
+                    Matcher id = ID.matcher(response.body());
+                    if (response.statusCode() == 201 && id.find()) {
+                        target.deletable().addFirst(Long.valueOf(id.group(1)));
+                        return true;
+                    }
+                    return false;
+                }
+                case GET_BY_ID -> {
+                    return status(client, request.uri(target.resolve("/id/" + planet.id())).build()) == 200;
+                }
+                case GET_BY_NAME -> {
+                    return status(client, request.uri(target.resolve("/name/" + planet.name())).build()) == 200;
+                }
+                case LIST -> {
+                    return status(client, request.uri(target.resolve("?climate=temperate&limit=20")).build()) == 200;
+                }
+                case DELETE -> {
+                    Long id = target.deletable().pollFirst();
+                    return id != null && status(client, request.uri(target.resolve("/" + id)).DELETE().build()) == 204;
+                }
+            }
+        } catch (IOException ex) {
+            return false;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+        return false;
+    }
+
+    private static int status(HttpClient client, HttpRequest request) throws IOException, InterruptedException {
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private static void report(Map<Operation, Result> results) throws IOException {
+        Files.createDirectories(REPORTS);
+        System.out.printf("%d req/s for %s, %d planets, mix %s%n", RATE, DURATION, PLANETS, MIX);
+        System.out.printf("%-10s %8s %10s %9s %9s %9s %9s %9s %7s%n",
+                "operation", "count", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms", "errors");
+        for (Map.Entry<Operation, Result> entry : results.entrySet()) {
+            Result result = entry.getValue();
+            Histogram latencies = result.latencies;
+            System.out.printf("%-10s %8d %10.1f %9.2f %9.2f %9.2f %9.2f %9.2f %7d%n",
+                    entry.getKey(), latencies.getTotalCount(), result.throughput(),
+                    millis(latencies.getValueAtPercentile(50)), millis(latencies.getValueAtPercentile(90)),
+                    result.p99Millis(), millis(latencies.getValueAtPercentile(99.9)),
+                    millis(latencies.getMaxValue()), result.errors.sum());
+            try (PrintStream out = new PrintStream(Files.newOutputStream(REPORTS.resolve(entry.getKey() + ".hgrm")))) {
+                latencies.outputPercentileDistribution(out, 1e6);
+            }
+        }
+    }
+
+    private static void gate(Map<Operation, Integer> mix, Map<Operation, Result> results) throws IOException {
+        Properties run = new Properties();
+        run.setProperty("rate", Integer.toString(RATE));
+        run.setProperty("planets", Integer.toString(PLANETS));
+        run.setProperty("mix", MIX);
+        results.forEach((operation, result) -> {
+            run.setProperty(operation + ".p99-ms", "%.2f".formatted(result.p99Millis()));
+            run.setProperty(operation + ".throughput", "%.1f".formatted(result.throughput()));
+        });
+
+        if (Boolean.getBoolean("load.update-baseline")) {
+            assertThat(BASELINE).as("-Dload.baseline, the file to record the baseline in").isNotBlank();
+            Path file = Path.of(BASELINE);
+            try (OutputStream out = Files.newOutputStream(file)) {
+                run.store(out, "LoadGenerator baseline: p99 latency in ms and throughput in req/s per operation");
+            }
+            System.out.println("Baseline written to " + file.toAbsolutePath());
+            return;
+        }
+
+        Properties baseline = new Properties();
+        if (BASELINE != null && Files.exists(Path.of(BASELINE))) {
+            try (InputStream in = Files.newInputStream(Path.of(BASELINE))) {
+                baseline.load(in);
+            }
+        }
+        List<String> regressions = new ArrayList<>();
+        results.forEach((operation, result) -> {
+            if (result.errors.sum() > 0) {
+                regressions.add("%s: %d errors".formatted(operation, result.errors.sum()));
+            }
+        });
+        if (!Arrays.stream(new String[]{"rate", "planets", "mix"})
+                .allMatch(key -> run.getProperty(key).equals(baseline.getProperty(key)))) {
+            System.out.println("No baseline recorded on this host for these run parameters; only errors are checked");
+        } else {
+            for (Operation operation : mix.keySet()) {
+                Result result = results.get(operation);
+                double p99 = Double.parseDouble(baseline.getProperty(operation + ".p99-ms"));
+                double throughput = Double.parseDouble(baseline.getProperty(operation + ".throughput"));
+                if (result.p99Millis() > p99 * (1 + P99_TOLERANCE)) {
+                    regressions.add("%s: p99 %.2f ms, baseline %.2f ms".formatted(operation, result.p99Millis(), p99));
+                }
+                if (result.throughput() < throughput * (1 - THROUGHPUT_TOLERANCE)) {
+                    regressions.add("%s: %.1f req/s, baseline %.1f req/s".formatted(operation, result.throughput(), throughput));
+                }
+            }
+        }
+        assertThat(regressions).as("regressions against %s", BASELINE).isEmpty();
+    }
+
+    private static Map<Operation, Integer> parseMix(String mix) {
+        return Arrays.stream(mix.split(","))
+                .map(share -> share.trim().split(":"))
+                .collect(Collectors.toMap(share -> Operation.of(share[0]), share -> Integer.valueOf(share[1]),
+                        Integer::sum, () -> new EnumMap<>(Operation.class)));
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1e6;
+    }
+
+    private record Target(URI base, List<PlanetName> reads, ConcurrentLinkedDeque<Long> deletable, AtomicLong created) {
+        Target(URI base, List<PlanetName> reads, ConcurrentLinkedDeque<Long> deletable) {
+            this(base, reads, deletable, new AtomicLong());
+        }
+
+        URI resolve(String path) {
+            return URI.create(base + path);
+        }
+    }
+
+    private static final class Result {
+        private final Histogram latencies = new ConcurrentHistogram(3);
+        private final LongAdder errors = new LongAdder();
+        private Duration elapsed;
+
+        double throughput() {
+            return latencies.getTotalCount() / (elapsed.toNanos() / 1e9);
+        }
+
+        double p99Millis() {
+            return millis(latencies.getValueAtPercentile(99));
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.br.giulianabezerra.starwars_planet_api.benchmark;
+
+import com.br.giulianabezerra.starwars_planet_api.domain.Planet;
+import com.br.giulianabezerra.starwars_planet_api.domain.PlanetFilter;
+import com.br.giulianabezerra.starwars_planet_api.domain.PlanetRepository;
+import org.apache.commons.lang3.builder.EqualsBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.lang.management.ManagementFactory;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+import static com.br.giulianabezerra.starwars_planet_api.domain.QueryBuilder.afterId;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares the bytes allocated per read by the managed-entity path used before
+ * with the record projection path, and the reflective equals with the hand-written one.
+ * Run with {@code mvn test -Pbenchmark}; set BENCHMARK_DB_URL to measure against MySQL.
+ */
+@SpringBootTest
+@ActiveProfiles("benchmark")
+public class ReadPathBenchmark {
+    private static final int PLANETS = Integer.getInteger("benchmark.planets", 1000);
+    private static final int ITERATIONS = Integer.getInteger("benchmark.iterations", 20_000);
+    private static final int PAGE_SIZE = 100;
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    @Autowired
+    private PlanetRepository repository;
+
+    private long firstId;
+
+    @BeforeEach
+    void setUp() {
+        repository.deleteAllInBatch();
+        repository.insertAll(IntStream.range(0, PLANETS)
+                .mapToObj(i -> new Planet("read-" + i, "temperate", "grasslands, mountains"))
+                .toList());
+        firstId = repository.findNamesAfter(0L, Limit.of(1)).getFirst().id();
+    }
+
+    @Test
+    public void findById_ProjectionAllocatesNoMoreThanEntity() {
+        long entityBytes = bytesPerOp(i -> repository.findById(firstId + i % PLANETS));
+        long viewBytes = bytesPerOp(i -> repository.findViewById(firstId + i % PLANETS));
+
+        // For a single row the query machinery dominates; the gain shows on pages and in equals.
+        report("findById", entityBytes, viewBytes);
+        assertThat(viewBytes).isLessThanOrEqualTo(entityBytes * 11 / 10);
+    }
+
+    @Test
+    public void findPage_ProjectionAllocatesLessThanEntities() {
+        var filter = PlanetFilter.of(null, "temperate").toSpecification();
+        long entityBytes = bytesPerOp(i -> repository.findBy(filter.and(afterId(firstId + i % PLANETS)),
+                query -> query.sortBy(Sort.by("id")).limit(PAGE_SIZE).all()));
+        long viewBytes = bytesPerOp(i -> repository.findPage(filter, firstId + i % PLANETS, PAGE_SIZE));
+
+        report("findPage(" + PAGE_SIZE + ")", entityBytes, viewBytes);
+        assertThat(viewBytes).isLessThan(entityBytes);
+    }
+
+    @Test
+    public void equals_FieldByFieldAllocatesLessThanReflection() {
+        Planet planet = new Planet(1L, "Alderaan", "temperate", "grasslands, mountains");
+        Planet other = new Planet(1L, "Alderaan", "temperate", "grasslands, mountains");
+        long reflectionBytes = bytesPerOp(i -> EqualsBuilder.reflectionEquals(planet, other, "terrainTags", "climateTags"));
+        long fieldBytes = bytesPerOp(i -> planet.equals(other));
+
+        report("Planet.equals", reflectionBytes, fieldBytes);
+        assertThat(fieldBytes).isLessThan(reflectionBytes);
+    }
+
+    private static long bytesPerOp(IntConsumer operation) {
+        IntStream.range(0, ITERATIONS).forEach(operation);
+        long threadId = Thread.currentThread().threadId();
+        long before = THREADS.getThreadAllocatedBytes(threadId);
+        IntStream.range(0, ITERATIONS).forEach(operation);
+        return (THREADS.getThreadAllocatedBytes(threadId) - before) / ITERATIONS;
+    }
+
+    private static void report(String operation, long beforeBytes, long afterBytes) {
+        System.out.printf("%s: before %d B/op, after %d B/op (%.1fx less)%n",
+                operation, beforeBytes, afterBytes, (double) beforeBytes / Math.max(afterBytes, 1));
+    }
+}
@@ -0,0 +1,167 @@
+package com.br.giulianabezerra.starwars_planet_api.benchmark;
+
+import com.br.giulianabezerra.starwars_planet_api.StarwarsPlanetApiApplication;
+import com.br.giulianabezerra.starwars_planet_api.domain.Planet;
+import com.br.giulianabezerra.starwars_planet_api.domain.PlanetRepository;
+import jdk.jfr.consumer.RecordingStream;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.server.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Throughput and p99 of a blocking JDBC read ({@code GET /planets?climate=...}) at
+ * 1k and 10k concurrent keep-alive connections, with Tomcat on platform threads
+ * and on virtual threads. The Hikari pool stays at its configured size in both modes.
+ * <p>
+ * Run with {@code mvn test -Pbenchmark -Dtest=VirtualThreadLoadBenchmark}; tune with
+ * {@code -Dbenchmark.connections=1000,10000 -Dbenchmark.duration-seconds=10} and set
+ * BENCHMARK_DB_URL to measure against MySQL. Each connection needs two file descriptors
+ * in this JVM, so 10k connections need {@code ulimit -n} above 20000.
+ */
+public class VirtualThreadLoadBenchmark {
+    private static final List<Integer> CONNECTIONS = Arrays.stream(System.getProperty("benchmark.connections", "1000,10000").split(","))
+            .map(String::trim)
+            .map(Integer::valueOf)
+            .toList();
+    private static final Duration DURATION = Duration.ofSeconds(Long.getLong("benchmark.duration-seconds", 10));
+    private static final Duration WARMUP = Duration.ofSeconds(3);
+    private static final int PLANETS = Integer.getInteger("benchmark.planets", 1000);
+
+    @Test
+    public void platformThreads() throws Exception {
+        run(false);
+    }
+
+    @Test
+    public void virtualThreads() throws Exception {
+        run(true);
+    }
+
+    private void run(boolean virtualThreads) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(StarwarsPlanetApiApplication.class)
+                .profiles("benchmark")
+                .properties("server.port=0",
+                        "server.tomcat.max-connections=20000",
+                        "spring.threads.virtual.enabled=" + virtualThreads,
+                        "logging.level.root=warn")
+                .run();
+             RecordingStream pinning = new RecordingStream()) {
+            context.getBean(PlanetRepository.class).insertAll(IntStream.range(0, PLANETS)
+                    .mapToObj(i -> new Planet("load-" + i, i % 2 == 0 ? "temperate" : "arid", "grasslands, mountains"))
+                    .toList());
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            URI uri = URI.create("http://localhost:" + port + "/planets?climate=temperate&limit=20");
+
+            LongAdder pinned = new LongAdder();
+            pinning.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ofMillis(1));
+            pinning.onEvent("jdk.VirtualThreadPinned", event -> pinned.increment());
+            pinning.startAsync();
+
+            load(uri, Math.min(100, CONNECTIONS.getFirst()), WARMUP);
+            for (int connections : CONNECTIONS) {
+                Result result = load(uri, connections, DURATION);
+                System.out.printf("%s threads, %d connections: %.0f req/s, p50 %.2f ms, p99 %.2f ms, %d errors, %d pinned%n",
+                        virtualThreads ? "virtual" : "platform", connections, result.throughput(),
+                        result.percentileMillis(0.50), result.percentileMillis(0.99), result.errors(), pinned.sumThenReset());
+                assertThat(result.completed()).isPositive();
+            }
+        }
+    }
+
+    /**
+     * One virtual client thread per connection, each sending requests back to back until the deadline.
+     */
+    private static Result load(URI uri, int connections, Duration duration) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(30)).build();
+        long deadline = System.nanoTime() + duration.toNanos();
+        LongAdder errors = new LongAdder();
+        List<Future<Latencies>> clients = new ArrayList<>(connections);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+             HttpClient client = HttpClient.newBuilder().executor(executor).build()) {
+            for (int i = 0; i < connections; i++) {
+                clients.add(executor.submit(() -> {
+                    Latencies latencies = new Latencies();
+                    while (System.nanoTime() < deadline) {
+                        long start = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() == 200) {
+                                latencies.add(System.nanoTime() - start);
+                            } else {
+                                errors.increment();
+                            }
+                        } catch (IOException ex) {
+                            errors.increment();
+                        }
+                    }
+                    return latencies;
+                }));
+            }
+            Latencies all = new Latencies();
+            for (Future<Latencies> latencies : clients) {
+                all.addAll(latencies.get());
+            }
+            return new Result(all.sorted(), errors.sum(), duration);
+        }
+    }
+
+    private record Result(long[] latencies, long errors, Duration duration) {
+        long completed() {
+            return latencies.length;
+        }
+
+        double throughput() {
+            return latencies.length / (duration.toNanos() / 1e9);
+        }
+
+        double percentileMillis(double percentile) {
+            if (latencies.length == 0) {
+                return Double.NaN;
+            }
+            return latencies[(int) Math.min(latencies.length - 1, Math.ceil(percentile * latencies.length) - 1)] / 1e6;
+        }
+    }
+
+    private static final class Latencies {
+        private long[] values = new long[256];
+        private int size;
+
+        void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        void addAll(Latencies other) {
+            for (int i = 0; i < other.size; i++) {
+                add(other.values[i]);
+            }
+        }
+
+        long[] sorted() {
+            long[] sorted = Arrays.copyOf(values, size);
+            Arrays.sort(sorted);
+            return sorted;
+        }
+    }
+}
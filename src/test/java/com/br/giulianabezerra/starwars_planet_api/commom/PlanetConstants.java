@@ -1,6 +1,7 @@
 package com.br.giulianabezerra.starwars_planet_api.commom;
 
 import com.br.giulianabezerra.starwars_planet_api.domain.Planet;
+import com.br.giulianabezerra.starwars_planet_api.domain.PlanetView;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -20,4 +21,10 @@ public class PlanetConstants {
                 add(YAVIN_IV);
             }
         };
+
+        public static final PlanetView PLANET_VIEW = PlanetView.of(PLANET);
+        public static final PlanetView TATOOINE_VIEW = PlanetView.of(TATOOINE);
+        public static final PlanetView ALDERAAN_VIEW = PlanetView.of(ALDERAAN);
+        public static final PlanetView YAVIN_IV_VIEW = PlanetView.of(YAVIN_IV);
+        public static final List<PlanetView> PLANET_VIEW_LIST = List.of(TATOOINE_VIEW, ALDERAAN_VIEW, YAVIN_IV_VIEW);
 }
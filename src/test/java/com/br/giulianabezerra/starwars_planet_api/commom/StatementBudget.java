@@ -0,0 +1,27 @@
+package com.br.giulianabezerra.starwars_planet_api.commom;
+
+import com.br.giulianabezerra.starwars_planet_api.web.SqlStatisticsFilter;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Fails a test when an endpoint runs more SQL statements than it should, as reported by
+ * {@link SqlStatisticsFilter}. Budgets are upper bounds: a new N+1 breaks the build.
+ */
+public class StatementBudget {
+
+    public static ResultMatcher withinStatementBudget(int budget) {
+        return result -> assertWithin(result.getResponse().getHeader(SqlStatisticsFilter.STATEMENTS_HEADER), budget);
+    }
+
+    public static void assertWithinStatementBudget(ResponseEntity<?> response, int budget) {
+        assertWithin(response.getHeaders().getFirst(SqlStatisticsFilter.STATEMENTS_HEADER), budget);
+    }
+
+    private static void assertWithin(String statements, int budget) {
+        assertThat(statements).as("%s header", SqlStatisticsFilter.STATEMENTS_HEADER).isNotNull();
+        assertThat(Integer.parseInt(statements)).as("SQL statements").isLessThanOrEqualTo(budget);
+    }
+}
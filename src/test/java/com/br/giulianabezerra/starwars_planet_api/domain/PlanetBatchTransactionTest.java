@@ -0,0 +1,90 @@
+package com.br.giulianabezerra.starwars_planet_api.domain;
+
+import com.br.giulianabezerra.starwars_planet_api.jdbc.ConsistencyTokens;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+
+import static com.br.giulianabezerra.starwars_planet_api.commom.PlanetConstants.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.AdditionalAnswers.delegatesTo;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Batch creation against the real transaction manager. Rows are committed, so they
+ * are deleted after each test instead of rolled back.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Sql(scripts = "/import_planets.sql")
+class PlanetBatchTransactionTest {
+
+    @Autowired
+    private PlanetRepository repository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private PlanetService planetService;
+
+    @BeforeEach
+    void setUp() {
+        // Misses existing names, as when they are written between the check and the insert.
+        PlanetRepository racing = mock(PlanetRepository.class, delegatesTo(repository));
+        doReturn(List.of()).when(racing).findExistingNames(any());
+        PlanetCache cache = new PlanetCache(100, Duration.ofMinutes(10), Duration.ofMinutes(10), 1000,
+                Duration.ofMinutes(10), Duration.ofSeconds(1), new ConsistencyTokens(Duration.ZERO), new SimpleMeterRegistry());
+        planetService = new PlanetService(racing, Validation.buildDefaultValidatorFactory().getValidator(), cache,
+                mock(PlanetNameFilter.class),
+                new PlanetCatalog(racing, false, "", new SimpleMeterRegistry()), 500, transactionManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        repository.deleteAllInBatch();
+    }
+
+    @Test
+    public void createPlanets_WithConcurrentConflict_CommitsTheOtherPlanets() {
+        List<Planet> planets = List.of(
+                new Planet("Kamino", "temperate", "ocean"),
+                new Planet(TATOOINE.getName(), TATOOINE.getClimate(), TATOOINE.getTerrain()),
+                new Planet("Naboo", "temperate", "grassy hills, swamps"));
+
+        PlanetBatchResult sut = planetService.createAll(planets);
+
+        assertThat(sut.items()).extracting(PlanetBatchResult.Item::status).containsExactly(
+                PlanetBatchResult.Status.CREATED,
+                PlanetBatchResult.Status.CONFLICT,
+                PlanetBatchResult.Status.CREATED);
+        assertThat(repository.findExistingNames(List.of("Kamino", "Naboo"))).containsExactlyInAnyOrder("Kamino", "Naboo");
+    }
+
+    @Test
+    public void createPlanets_InsideCallerTransaction_CommitsTheOtherPlanets() {
+        List<Planet> planets = List.of(
+                new Planet(ALDERAAN.getName(), ALDERAAN.getClimate(), ALDERAAN.getTerrain()),
+                new Planet("Kamino", "temperate", "ocean"));
+
+        PlanetBatchResult sut = new TransactionTemplate(transactionManager).execute(status -> planetService.createAll(planets));
+
+        assertThat(sut.items()).extracting(PlanetBatchResult.Item::status).containsExactly(
+                PlanetBatchResult.Status.CONFLICT,
+                PlanetBatchResult.Status.CREATED);
+        assertThat(repository.findExistingNames(List.of("Kamino"))).containsExactly("Kamino");
+    }
+}
@@ -0,0 +1,312 @@
+package com.br.giulianabezerra.starwars_planet_api.domain;
+
+import com.br.giulianabezerra.starwars_planet_api.jdbc.ConsistencyTokens;
+import com.br.giulianabezerra.starwars_planet_api.jdbc.PrimaryReads;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import static com.br.giulianabezerra.starwars_planet_api.commom.PlanetConstants.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class PlanetCacheTest {
+
+    private MeterRegistry meterRegistry;
+
+    private PlanetCache cache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new PlanetCache(100, Duration.ofMinutes(10), Duration.ofMinutes(10), 1000, Duration.ofMinutes(10), Duration.ofSeconds(1), new ConsistencyTokens(Duration.ZERO), meterRegistry);
+    }
+
+    @Test
+    public void findById_CachesLoadedPlanet() {
+        PlanetView sut = cache.findById(1L, id -> Optional.of(TATOOINE_VIEW)).orElseThrow();
+
+        assertThat(sut).isEqualTo(TATOOINE_VIEW);
+        assertThat(cache.findById(1L, id -> Optional.empty())).contains(sut);
+    }
+
+    @Test
+    public void findById_WithUnexistingId_DoesNotCacheMiss() {
+        assertThat(cache.findById(99L, id -> Optional.empty())).isEmpty();
+        assertThat(cache.findById(99L, id -> Optional.of(TATOOINE_VIEW))).contains(TATOOINE_VIEW);
+    }
+
+    @Test
+    public void findById_WithConcurrentMisses_LoadsOnce() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger loads = new AtomicInteger();
+        Function<Long, Optional<PlanetView>> loader = id -> {
+            loads.incrementAndGet();
+            loading.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            return Optional.of(TATOOINE_VIEW);
+        };
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<Optional<PlanetView>> first = executor.submit(() -> cache.findById(1L, loader));
+            loading.await();
+            Future<Optional<PlanetView>> second = executor.submit(() -> cache.findById(1L, loader));
+            while (idCalls("follower") < 1) {
+                Thread.sleep(1);
+            }
+            release.countDown();
+
+            assertThat(first.get()).contains(TATOOINE_VIEW);
+            assertThat(second.get()).contains(TATOOINE_VIEW);
+        }
+        assertThat(loads).hasValue(1);
+        assertThat(idCalls("leader")).isEqualTo(1);
+    }
+
+    @Test
+    public void findById_WhenLoadTakesTooLong_LoadsAgain() throws Exception {
+        cache = new PlanetCache(100, Duration.ofMinutes(10), Duration.ofMinutes(10), 1000, Duration.ofMinutes(10), Duration.ofMillis(10), new ConsistencyTokens(Duration.ZERO), meterRegistry);
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Function<Long, Optional<PlanetView>> stuck = id -> {
+            loading.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            return Optional.of(TATOOINE_VIEW);
+        };
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<Optional<PlanetView>> leader = executor.submit(() -> cache.findById(1L, stuck));
+            loading.await();
+
+            assertThat(cache.findById(1L, id -> Optional.of(TATOOINE_VIEW))).contains(TATOOINE_VIEW);
+            release.countDown();
+            assertThat(leader.get()).contains(TATOOINE_VIEW);
+        }
+        assertThat(meterRegistry.get("planets.singleflight.timeouts").tags("operation", "findById").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    public void findByName_WithConcurrentMissesInAnyCase_LoadsOnce() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger loads = new AtomicInteger();
+        Function<String, Optional<PlanetView>> loader = name -> {
+            loads.incrementAndGet();
+            loading.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            return Optional.of(TATOOINE_VIEW);
+        };
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<Optional<PlanetView>> first = executor.submit(() -> cache.findByName("Tatooine", loader));
+            loading.await();
+            Future<Optional<PlanetView>> second = executor.submit(() -> cache.findByName("TATOOINE", loader));
+            while (meterRegistry.get("planets.singleflight.calls").tags("operation", "findByName", "role", "follower").counter().count() < 1) {
+                Thread.sleep(1);
+            }
+            release.countDown();
+
+            assertThat(first.get()).contains(TATOOINE_VIEW);
+            assertThat(second.get()).contains(TATOOINE_VIEW);
+        }
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    public void findById_WhenLoaderFails_DoesNotCacheFailure() {
+        assertThatThrownBy(() -> cache.findById(1L, id -> { throw new IllegalStateException("down"); }))
+                .isInstanceOf(IllegalStateException.class);
+
+        assertThat(cache.findById(1L, id -> Optional.of(TATOOINE_VIEW))).contains(TATOOINE_VIEW);
+    }
+
+    @Test
+    public void findById_WhenLoaderThrowsError_DoesNotLeaveLoadPending() {
+        assertThatThrownBy(() -> cache.findById(1L, id -> { throw new StackOverflowError(); }))
+                .isInstanceOf(StackOverflowError.class);
+
+        assertThat(cache.findById(1L, id -> Optional.of(TATOOINE_VIEW))).contains(TATOOINE_VIEW);
+    }
+
+    @Test
+    public void evictId_RemovesPlanetAndItsName() {
+        cache.findByName(ALDERAAN.getName(), name -> Optional.of(ALDERAAN_VIEW));
+
+        cache.evictId(ALDERAAN.getId());
+
+        assertThat(cache.findById(ALDERAAN.getId(), id -> Optional.empty())).isEmpty();
+        assertThat(cache.findByName(ALDERAAN.getName(), name -> Optional.empty())).isEmpty();
+    }
+
+    @Test
+    public void put_MakesPlanetVisibleByIdAndName() {
+        cache.put(ALDERAAN_VIEW, cache.generation());
+
+        assertThat(cache.getAllPresent(List.of(ALDERAAN.getId(), 99L))).containsOnlyKeys(ALDERAAN.getId());
+        assertThat(cache.getAllPresentByName(List.of(ALDERAAN.getName(), "name")))
+                .containsExactly(Map.entry(ALDERAAN.getName(), ALDERAAN_VIEW));
+    }
+
+    @Test
+    public void put_AfterEviction_IsNotKept() {
+        long loadedAt = cache.generation();
+        cache.evictId(ALDERAAN.getId());
+
+        cache.put(ALDERAAN_VIEW, loadedAt);
+
+        assertThat(cache.getAllPresent(List.of(ALDERAAN.getId()))).isEmpty();
+        assertThat(cache.getAllPresentByName(List.of(ALDERAAN.getName()))).isEmpty();
+    }
+
+    @Test
+    public void findByName_LoadedDuringDelete_IsNotKept() {
+        cache.findByName(ALDERAAN.getName(), name -> {
+            cache.evictId(ALDERAAN.getId());
+            return Optional.of(ALDERAAN_VIEW);
+        });
+
+        assertThat(cache.findByName(ALDERAAN.getName(), name -> Optional.empty())).isEmpty();
+    }
+
+    @Test
+    public void findById_LoadedDuringDelete_IsNotKept() {
+        cache.findById(ALDERAAN.getId(), id -> {
+            cache.evictId(id);
+            return Optional.of(ALDERAAN_VIEW);
+        });
+
+        assertThat(cache.findById(ALDERAAN.getId(), id -> Optional.empty())).isEmpty();
+    }
+
+    @Test
+    public void findById_LoadedDuringUnrelatedWrite_IsKept() {
+        cache.findById(ALDERAAN.getId(), id -> {
+            cache.evictName(YAVIN_IV.getName());
+            cache.evictId(TATOOINE.getId());
+            cache.evictFilterResults();
+            return Optional.of(ALDERAAN_VIEW);
+        });
+
+        assertThat(cache.findById(ALDERAAN.getId(), id -> Optional.empty())).contains(ALDERAAN_VIEW);
+    }
+
+    @Test
+    public void put_AfterEvictionOfNameInOtherCase_IsNotKept() {
+        long loadedAt = cache.generation();
+        cache.evictName(ALDERAAN.getName().toUpperCase());
+
+        cache.put(ALDERAAN_VIEW, loadedAt);
+
+        assertThat(cache.getAllPresent(List.of(ALDERAAN.getId()))).isEmpty();
+    }
+
+    @Test
+    public void findById_ReadingFromPrimary_BypassesCache() {
+        cache.findById(1L, id -> Optional.of(TATOOINE_VIEW));
+
+        PrimaryReads.start();
+        try {
+            assertThat(cache.findById(1L, id -> Optional.empty())).isEmpty();
+            cache.findByName(ALDERAAN.getName(), name -> Optional.of(ALDERAAN_VIEW));
+        } finally {
+            PrimaryReads.stop();
+        }
+
+        assertThat(cache.findByName(ALDERAAN.getName(), name -> Optional.empty())).isEmpty();
+    }
+
+    @Test
+    public void findById_WithinReplicaLagOfWrite_IsNotKept() {
+        cache = new PlanetCache(100, Duration.ofMinutes(10), Duration.ofMinutes(10), 1000, Duration.ofMinutes(10), Duration.ofSeconds(1), new ConsistencyTokens(Duration.ofMinutes(1)), new SimpleMeterRegistry());
+        cache.evictFilterResults();
+
+        cache.findById(1L, id -> Optional.of(TATOOINE_VIEW));
+        cache.put(ALDERAAN_VIEW, cache.generation());
+
+        assertThat(cache.findById(1L, id -> Optional.empty())).isEmpty();
+        assertThat(cache.getAllPresent(List.of(ALDERAAN.getId()))).isEmpty();
+    }
+
+    @Test
+    public void page_WithEquivalentFilter_IsServedFromCache() {
+        AtomicInteger loads = new AtomicInteger();
+        Supplier<PlanetPage> loader = () -> {
+            loads.incrementAndGet();
+            return new PlanetPage(PLANET_VIEW_LIST, null);
+        };
+
+        PlanetPage sut = cache.page(PlanetFilter.of("Jungle, Rainforest", null), null, 10, loader);
+        cache.page(PlanetFilter.of("rainforest,jungle ", ""), null, 10, loader);
+        cache.page(PlanetFilter.of("jungle", null), null, 10, loader);
+
+        assertThat(sut.planets()).isEqualTo(PLANET_VIEW_LIST);
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    public void page_LoadedDuringWrite_IsNotServedAfterIt() {
+        AtomicInteger loads = new AtomicInteger();
+        Supplier<PlanetPage> loader = () -> {
+            if (loads.incrementAndGet() == 1) {
+                cache.evictFilterResults();
+            }
+            return new PlanetPage(List.of(), null);
+        };
+
+        cache.page(PlanetFilter.of(null, "arid"), null, 10, loader);
+        cache.page(PlanetFilter.of(null, "arid"), null, 10, loader);
+        cache.page(PlanetFilter.of(null, "arid"), null, 10, loader);
+
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    public void version_AdvancesOnEveryWrite() {
+        long before = cache.version();
+
+        cache.evictFilterResults();
+
+        assertThat(cache.version()).isGreaterThan(before);
+        assertThat(cache.versionChangedAt()).isPositive();
+    }
+
+    @Test
+    public void lookups_AreReportedAsHitsAndMisses() {
+        cache.findById(1L, id -> Optional.of(TATOOINE_VIEW));
+        cache.findById(1L, id -> Optional.of(TATOOINE_VIEW));
+
+        assertThat(meterRegistry.get("cache.gets").tags("cache", "planets.byId", "result", "hit").functionCounter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("cache.gets").tags("cache", "planets.byId", "result", "miss").functionCounter().count()).isEqualTo(1);
+        assertThat(meterRegistry.find("cache.evictions").tags("cache", "planets.byId").functionCounter()).isNotNull();
+    }
+
+    private double idCalls(String role) {
+        return meterRegistry.get("planets.singleflight.calls").tags("operation", "findById", "role", role).counter().count();
+    }
+}
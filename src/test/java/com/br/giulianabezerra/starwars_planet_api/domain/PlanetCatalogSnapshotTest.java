@@ -0,0 +1,108 @@
+package com.br.giulianabezerra.starwars_planet_api.domain;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static com.br.giulianabezerra.starwars_planet_api.commom.PlanetConstants.*;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class PlanetCatalogSnapshotTest {
+
+    private final PlanetCatalogSnapshot snapshot = PlanetCatalogSnapshot.of(List.of(YAVIN_IV_VIEW, TATOOINE_VIEW, ALDERAAN_VIEW));
+
+    @Test
+    public void findById_ReturnsPlanetOrEmpty() {
+        assertThat(snapshot.findById(TATOOINE.getId())).contains(TATOOINE_VIEW);
+        assertThat(snapshot.findById(YAVIN_IV.getId())).contains(YAVIN_IV_VIEW);
+        assertThat(snapshot.findById(99L)).isEmpty();
+    }
+
+    @Test
+    public void findByName_IgnoresCase() {
+        assertThat(snapshot.findByName("ALDERAAN")).contains(ALDERAAN_VIEW);
+        assertThat(snapshot.findByName("yavin iv")).contains(YAVIN_IV_VIEW);
+        assertThat(snapshot.findByName("Hoth")).isEmpty();
+    }
+
+    @Test
+    public void findByName_IgnoresAccents() {
+        assertThat(snapshot.findByName("Tatooïne")).contains(TATOOINE_VIEW);
+        assertThat(snapshot.findByName("ÁLDERAAN")).contains(ALDERAAN_VIEW);
+    }
+
+    @Test
+    public void findPage_ByTags_ReturnsPlanetsHavingAllTagsInIdOrder() {
+        assertThat(snapshot.findPage(PlanetFilter.of(null, null), null, 10)).isEqualTo(PLANET_VIEW_LIST);
+        assertThat(snapshot.findPage(PlanetFilter.of(null, "temperate"), null, 10)).containsExactly(ALDERAAN_VIEW, YAVIN_IV_VIEW);
+        assertThat(snapshot.findPage(PlanetFilter.of("jungle", "Tropical, temperate"), null, 10)).containsExactly(YAVIN_IV_VIEW);
+        assertThat(snapshot.findPage(PlanetFilter.of("jungle", "arid"), null, 10)).isEmpty();
+        assertThat(snapshot.findPage(PlanetFilter.of("swamp", null), null, 10)).isEmpty();
+    }
+
+    @Test
+    public void findPage_ByContains_MatchesSubstringsIgnoringCase() {
+        PlanetFilter filter = new PlanetFilter("MOUNT", "temp", PlanetFilter.Match.CONTAINS);
+
+        assertThat(snapshot.findPage(filter, null, 10)).containsExactly(ALDERAAN_VIEW);
+    }
+
+    @Test
+    public void findPage_AfterCursor_ReturnsFollowingPlanetsUpToLimit() {
+        assertThat(snapshot.findPage(PlanetFilter.of(null, null), TATOOINE.getId(), 1)).containsExactly(ALDERAAN_VIEW);
+        assertThat(snapshot.findPage(PlanetFilter.of(null, "temperate"), ALDERAAN.getId(), 10)).containsExactly(YAVIN_IV_VIEW);
+        assertThat(snapshot.findPage(PlanetFilter.of(null, null), YAVIN_IV.getId(), 10)).isEmpty();
+    }
+
+    @Test
+    public void count_MatchesFindPage() {
+        assertThat(snapshot.count(PlanetFilter.of(null, null))).isEqualTo(3);
+        assertThat(snapshot.count(PlanetFilter.of(null, "temperate"))).isEqualTo(2);
+        assertThat(snapshot.count(PlanetFilter.of("mountains", "temperate"))).isEqualTo(1);
+        assertThat(snapshot.count(new PlanetFilter("desert", null, PlanetFilter.Match.CONTAINS))).isEqualTo(1);
+    }
+
+    @Test
+    public void findPage_WithRareAndCommonTags_CombinesBoth() {
+        List<PlanetView> planets = IntStream.range(0, 1000)
+                .mapToObj(i -> new PlanetView(i + 1L, "planet-" + i, "temperate", i % 100 == 0 ? "ocean, islands" : "ocean"))
+                .toList();
+        PlanetCatalogSnapshot sut = PlanetCatalogSnapshot.of(planets);
+
+        assertThat(sut.findPage(PlanetFilter.of("ocean, islands", "temperate"), 101L, 3))
+                .extracting(PlanetView::id).containsExactly(201L, 301L, 401L);
+        assertThat(sut.count(PlanetFilter.of("islands", null))).isEqualTo(10);
+        assertThat(sut.count(PlanetFilter.of("ocean", "temperate"))).isEqualTo(1000);
+    }
+
+    @Test
+    public void withAndWithout_ReturnChangedCopies() {
+        PlanetView hoth = new PlanetView(4L, "Hoth", "frozen", "tundra, ice caves");
+        PlanetView renamed = new PlanetView(TATOOINE.getId(), "Tatooine II", "arid", "desert");
+
+        PlanetCatalogSnapshot sut = snapshot.with(List.of(hoth, renamed)).without(List.of(ALDERAAN.getId()));
+
+        assertThat(sut.findPage(PlanetFilter.of(null, null), null, 10)).containsExactly(renamed, YAVIN_IV_VIEW, hoth);
+        assertThat(sut.findByName("Tatooine")).isEmpty();
+        assertThat(sut.findPage(PlanetFilter.of("ice caves", null), null, 10)).containsExactly(hoth);
+        assertThat(snapshot.size()).isEqualTo(3);
+    }
+
+    @Test
+    public void with_NewPlanets_AppendsThemAndGrowsIndexes() {
+        PlanetCatalogSnapshot sut = snapshot;
+        for (long id = 4; id <= 40; id++) {
+            sut = sut.with(List.of(new PlanetView(id, "planet-" + id, "temperate", id % 10 == 0 ? "ocean, islands" : "ocean")));
+        }
+
+        assertThat(sut.size()).isEqualTo(40);
+        assertThat(sut.findById(40L)).map(PlanetView::name).contains("planet-40");
+        assertThat(sut.findByName("PLANET-17")).map(PlanetView::id).contains(17L);
+        assertThat(sut.findPage(PlanetFilter.of("islands", null), null, 10)).extracting(PlanetView::id).containsExactly(10L, 20L, 30L, 40L);
+        assertThat(sut.count(PlanetFilter.of("ocean", "temperate"))).isEqualTo(37);
+        assertThat(sut.count(PlanetFilter.of(null, "temperate"))).isEqualTo(39);
+        assertThat(snapshot.size()).isEqualTo(3);
+        assertThat(snapshot.findById(4L)).isEmpty();
+    }
+}
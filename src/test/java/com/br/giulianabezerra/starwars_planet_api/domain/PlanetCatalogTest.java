@@ -0,0 +1,122 @@
+package com.br.giulianabezerra.starwars_planet_api.domain;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
+import static com.br.giulianabezerra.starwars_planet_api.commom.PlanetConstants.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class PlanetCatalogTest {
+
+    @Mock
+    private PlanetRepository repository;
+
+    @TempDir
+    private Path tempDir;
+
+    @Test
+    public void snapshotFile_WrittenAndRead_RoundTrips() throws IOException {
+        PlanetView noClimate = new PlanetView(4L, "Hōth", null, "tundra, ice caves", 3L);
+        Path file = tempDir.resolve("catalog.bin");
+
+        PlanetCatalogFile.write(PlanetCatalogSnapshot.of(List.of(TATOOINE_VIEW, ALDERAAN_VIEW, YAVIN_IV_VIEW, noClimate)), file);
+        PlanetCatalogSnapshot sut = PlanetCatalogFile.read(file);
+
+        assertThat(sut.findPage(PlanetFilter.of(null, null), null, 10))
+                .containsExactly(TATOOINE_VIEW, ALDERAAN_VIEW, YAVIN_IV_VIEW, noClimate);
+        assertThat(sut.maxId()).isEqualTo(4L);
+        assertThat(Files.list(tempDir)).containsExactly(file);
+    }
+
+    @Test
+    public void snapshotFile_WhenCorrupt_IsRejected() throws IOException {
+        Path file = tempDir.resolve("catalog.bin");
+        PlanetCatalogFile.write(PlanetCatalogSnapshot.of(PLANET_VIEW_LIST), file);
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[bytes.length / 2] ^= 1;
+        Files.write(file, bytes);
+
+        assertThatThrownBy(() -> PlanetCatalogFile.read(file)).isInstanceOf(IOException.class);
+    }
+
+    @Test
+    public void startup_WithCurrentSnapshotFile_ServesItWithoutLoading() throws IOException {
+        Path file = tempDir.resolve("catalog.bin");
+        PlanetCatalogFile.write(PlanetCatalogSnapshot.of(PLANET_VIEW_LIST), file);
+        when(repository.count()).thenReturn(3L);
+        when(repository.findMaxId()).thenReturn(Optional.of(YAVIN_IV.getId()));
+        PlanetCatalog sut = catalog(file);
+
+        sut.readSnapshotFile();
+
+        assertThat(sut.current().findById(ALDERAAN.getId())).contains(ALDERAAN_VIEW);
+        assertThat(sut.reloadIfStale()).isFalse();
+        verify(repository, never()).findPage(any(), any(), anyInt());
+    }
+
+    @Test
+    public void startup_WithStaleSnapshotFile_ReloadsFromDatabase() throws IOException {
+        Path file = tempDir.resolve("catalog.bin");
+        PlanetCatalogFile.write(PlanetCatalogSnapshot.of(List.of(TATOOINE_VIEW)), file);
+        when(repository.count()).thenReturn(3L);
+        when(repository.findPage(any(), isNull(), anyInt())).thenReturn(PLANET_VIEW_LIST);
+        PlanetCatalog sut = catalog(file);
+
+        sut.readSnapshotFile();
+        long version = sut.version();
+
+        assertThat(sut.reloadIfStale()).isTrue();
+        assertThat(sut.current().size()).isEqualTo(3);
+        assertThat(sut.version()).isGreaterThan(version);
+    }
+
+    @Test
+    public void writeSnapshotFile_OnlyWhenChanged() throws IOException {
+        Path file = tempDir.resolve("catalog.bin");
+        when(repository.findPage(any(), isNull(), anyInt())).thenReturn(PLANET_VIEW_LIST);
+        PlanetCatalog sut = catalog(file);
+        sut.reload();
+
+        sut.writeSnapshotFile();
+        Files.delete(file);
+        sut.writeSnapshotFile();
+        boolean rewrittenUnchanged = Files.exists(file);
+        sut.remove(List.of(TATOOINE.getId()));
+        sut.writeSnapshotFile();
+
+        assertThat(rewrittenUnchanged).isFalse();
+        assertThat(PlanetCatalogFile.read(file).size()).isEqualTo(2);
+    }
+
+    @Test
+    public void snapshotFile_WhenDisabled_IsNeitherReadNorWritten() throws IOException {
+        Path file = tempDir.resolve("catalog.bin");
+        PlanetCatalogFile.write(PlanetCatalogSnapshot.of(PLANET_VIEW_LIST), file);
+        PlanetCatalog sut = new PlanetCatalog(repository, false, file.toString(), new SimpleMeterRegistry());
+
+        sut.readSnapshotFile();
+
+        assertThat(sut.current()).isNull();
+        verifyNoInteractions(repository);
+    }
+
+    private PlanetCatalog catalog(Path file) {
+        return new PlanetCatalog(repository, true, file.toString(), new SimpleMeterRegistry());
+    }
+}
@@ -0,0 +1,121 @@
+package com.br.giulianabezerra.starwars_planet_api.domain;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.http.HttpStatus;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+
+import static com.br.giulianabezerra.starwars_planet_api.commom.PlanetConstants.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class PlanetIngestQueueTest {
+
+    @Mock
+    private PlanetService service;
+
+    private PlanetIngestQueue queue(int capacity, int batchSize) {
+        return new PlanetIngestQueue(service, capacity, batchSize,
+                Duration.ofSeconds(10), Duration.ofMinutes(10), Duration.ofSeconds(10), new SimpleMeterRegistry());
+    }
+
+    @Test
+    public void submit_ThenStop_WritesQueuedPlanetsInBatches() {
+        when(service.createAll(any())).thenAnswer(invocation -> created(invocation.getArgument(0)));
+        PlanetIngestQueue queue = queue(10, 2);
+        queue.start();
+        UUID tatooine = queue.submit(TATOOINE);
+        UUID alderaan = queue.submit(ALDERAAN);
+        UUID yavin = queue.submit(YAVIN_IV);
+
+        queue.stop();
+
+        verify(service).createAll(List.of(TATOOINE, ALDERAAN));
+        verify(service).createAll(List.of(YAVIN_IV));
+        assertThat(queue.status(tatooine)).get().extracting(PlanetIngestStatus::state).isEqualTo(PlanetIngestStatus.State.CREATED);
+        assertThat(queue.status(alderaan)).get().extracting(PlanetIngestStatus::planet).isEqualTo(ALDERAAN);
+        assertThat(queue.status(yavin)).get().extracting(PlanetIngestStatus::state).isEqualTo(PlanetIngestStatus.State.CREATED);
+    }
+
+    @Test
+    public void submit_WithExistingName_ReportsConflict() {
+        when(service.createAll(List.of(TATOOINE))).thenReturn(new PlanetBatchResult(List.of(
+                PlanetBatchResult.Item.failed(0, PlanetBatchResult.Status.CONFLICT, "Name already exists"))));
+        PlanetIngestQueue queue = queue(10, 1);
+        queue.start();
+        UUID id = queue.submit(TATOOINE);
+
+        queue.stop();
+
+        assertThat(queue.status(id)).contains(
+                new PlanetIngestStatus(id, PlanetIngestStatus.State.CONFLICT, null, "Name already exists"));
+    }
+
+    @Test
+    public void submit_WhenBatchFails_ReportsFailed() {
+        when(service.createAll(any())).thenThrow(new DataAccessResourceFailureException("Database down"));
+        PlanetIngestQueue queue = queue(10, 2);
+        queue.start();
+        UUID id = queue.submit(TATOOINE);
+
+        queue.stop();
+
+        assertThat(queue.status(id)).contains(PlanetIngestStatus.failed(id, "Database down"));
+    }
+
+    @Test
+    public void submit_WithFullQueue_Throws429() throws Exception {
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(service.createAll(any())).thenAnswer(invocation -> {
+            writing.countDown();
+            release.await();
+            return created(invocation.getArgument(0));
+        });
+        PlanetIngestQueue queue = queue(1, 1);
+        queue.start();
+        queue.submit(TATOOINE);
+        writing.await();
+        queue.submit(ALDERAAN);
+
+        assertThatThrownBy(() -> queue.submit(YAVIN_IV))
+                .isInstanceOf(IngestQueueFullException.class)
+                .extracting("statusCode").isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+
+        release.countDown();
+        queue.stop();
+        verify(service, never()).createAll(List.of(YAVIN_IV));
+    }
+
+    @Test
+    public void submit_AfterStop_Throws429() {
+        PlanetIngestQueue queue = queue(10, 1);
+        queue.start();
+        queue.stop();
+
+        assertThatThrownBy(() -> queue.submit(TATOOINE)).isInstanceOf(IngestQueueFullException.class);
+        verifyNoInteractions(service);
+    }
+
+    @Test
+    public void status_ByUnknownId_ReturnsEmpty() {
+        assertThat(queue(1, 1).status(UUID.randomUUID())).isEmpty();
+    }
+
+    private static PlanetBatchResult created(List<Planet> planets) {
+        return new PlanetBatchResult(planets.stream()
+                .map(planet -> PlanetBatchResult.Item.created(planets.indexOf(planet), planet))
+                .toList());
+    }
+}
@@ -0,0 +1,125 @@
+package com.br.giulianabezerra.starwars_planet_api.domain;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static com.br.giulianabezerra.starwars_planet_api.commom.PlanetConstants.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class PlanetNameFilterTest {
+
+    @Mock
+    private PlanetRepository planetRepository;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final Clock clock = Clock.fixed(Instant.parse("2026-01-01T00:00:00Z"), ZoneOffset.UTC);
+
+    private PlanetNameFilter nameFilter;
+
+    @BeforeEach
+    void setUp() {
+        nameFilter = new PlanetNameFilter(planetRepository, 1000, 0.01, Duration.ofSeconds(1), 0, meterRegistry, clock);
+    }
+
+    @Test
+    public void mightExist_BeforeBuild_ReturnsTrue() {
+        assertThat(nameFilter.mightExist("anything")).isTrue();
+        verifyNoInteractions(planetRepository);
+    }
+
+    @Test
+    public void mightExist_AfterBuild_AcceptsStoredNamesIgnoringCaseAndAccents() {
+        when(planetRepository.findNamesAfter(0L, Limit.of(1000))).thenReturn(List.of(
+                new PlanetName(TATOOINE.getId(), TATOOINE.getName()),
+                new PlanetName(YAVIN_IV.getId(), YAVIN_IV.getName())));
+
+        nameFilter.rebuild();
+
+        assertThat(nameFilter.mightExist("Tatooine")).isTrue();
+        assertThat(nameFilter.mightExist("tatooíne")).isTrue();
+        assertThat(nameFilter.mightExist(" YAVIN IV")).isTrue();
+    }
+
+    @Test
+    public void mightExist_WithUnknownName_ReturnsFalseWithoutCatchUpWithinInterval() {
+        when(planetRepository.findNamesAfter(0L, Limit.of(1000))).thenReturn(List.of(
+                new PlanetName(TATOOINE.getId(), TATOOINE.getName())));
+        nameFilter.rebuild();
+
+        assertThat(nameFilter.mightExist("Unknown")).isFalse();
+
+        verify(planetRepository, times(1)).findNamesAfter(anyLong(), any());
+        assertThat(meterRegistry.get("planets.name.filter").tag("result", "negative").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    public void mightExist_WhenCatchUpIsDue_PicksUpNamesWrittenElsewhere() {
+        PlanetNameFilter sut = new PlanetNameFilter(planetRepository, 1000, 0.01, Duration.ZERO, 0, meterRegistry, clock);
+        when(planetRepository.findNamesAfter(0L, Limit.of(1000))).thenReturn(List.of(
+                new PlanetName(TATOOINE.getId(), TATOOINE.getName())));
+        when(planetRepository.findNamesAfter(TATOOINE.getId(), Limit.of(1000))).thenReturn(List.of(
+                new PlanetName(ALDERAAN.getId(), ALDERAAN.getName())));
+        sut.rebuild();
+
+        assertThat(sut.mightExist(ALDERAAN.getName())).isTrue();
+    }
+
+    @Test
+    public void mightExist_WhenCatchUpIsDue_PicksUpLowerIdsCommittedLate() {
+        PlanetNameFilter sut = new PlanetNameFilter(planetRepository, 1000, 0.01, Duration.ZERO, 10, meterRegistry, clock);
+        when(planetRepository.findNamesAfter(0L, Limit.of(1000))).thenReturn(
+                List.of(new PlanetName(TATOOINE.getId(), TATOOINE.getName()), new PlanetName(YAVIN_IV.getId(), YAVIN_IV.getName())),
+                List.of(new PlanetName(ALDERAAN.getId(), ALDERAAN.getName())));
+        sut.rebuild();
+
+        assertThat(sut.mightExist(ALDERAAN.getName())).isTrue();
+    }
+
+    @Test
+    public void add_MakesNameVisibleImmediately() {
+        nameFilter.rebuild();
+
+        nameFilter.add("Hoth");
+
+        assertThat(nameFilter.mightExist("hoth")).isTrue();
+    }
+
+    @Test
+    public void falsePositiveRate_IsReportedAsGauge() {
+        nameFilter.rebuild();
+        nameFilter.mightExist("unknown");
+        nameFilter.recordFalsePositive();
+
+        assertThat(meterRegistry.get("planets.name.filter.false.positive.rate").gauge().value()).isEqualTo(0.5);
+    }
+
+    @Test
+    public void bloomFilter_StaysCloseToConfiguredFalsePositiveRate() {
+        NameBloomFilter filter = new NameBloomFilter(10_000, 0.01);
+        IntStream.range(0, 10_000).forEach(i -> filter.add("planet-" + i));
+
+        long falsePositives = IntStream.range(0, 10_000).filter(i -> filter.mightContain("other-" + i)).count();
+
+        assertThat(IntStream.range(0, 10_000)).allMatch(i -> filter.mightContain("planet-" + i));
+        assertThat(falsePositives).isLessThan(200);
+        assertThat(filter.expectedFalsePositiveRate()).isLessThan(0.02);
+    }
+}
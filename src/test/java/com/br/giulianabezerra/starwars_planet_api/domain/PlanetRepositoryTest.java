@@ -1,15 +1,22 @@
 package com.br.giulianabezerra.starwars_planet_api.domain;
 
 import org.assertj.core.api.Assertions;
+import org.hibernate.Session;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
 import org.springframework.boot.jpa.test.autoconfigure.TestEntityManager;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Example;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.domain.PredicateSpecification;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.test.context.jdbc.Sql;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static com.br.giulianabezerra.starwars_planet_api.commom.PlanetConstants.*;
 import static org.assertj.core.api.Assertions.*;
@@ -49,6 +56,52 @@ class PlanetRepositoryTest {
         assertThatThrownBy(() -> repository.save(planet)).isInstanceOf(RuntimeException.class);
     }
 
+    @Test
+    public void createPlanets_WithValidData_AssignsGeneratedIds() {
+        List<Planet> planets = List.of(new Planet("a", "climate", "terrain"), new Planet("b", "climate", "terrain"));
+
+        repository.insertAll(planets);
+
+        assertThat(planets).allSatisfy(planet -> assertThat(planet.getId()).isNotNull());
+        assertThat(testEntityManager.find(Planet.class, planets.get(1).getId()).getName()).isEqualTo("b");
+    }
+
+    @Sql(scripts = "/import_planets.sql")
+    @Test
+    public void createPlanets_WithExistingName_ThrowsException() {
+        List<Planet> planets = List.of(new Planet(ALDERAAN.getName(), ALDERAAN.getClimate(), ALDERAAN.getTerrain()));
+
+        assertThatThrownBy(() -> repository.insertAll(planets)).isInstanceOf(DataIntegrityViolationException.class);
+    }
+
+    @Sql(scripts = "/import_planets.sql")
+    @Test
+    public void findExistingNames_ReturnsOnlyStoredNames() {
+        List<String> sut = repository.findExistingNames(List.of(ALDERAAN.getName(), "unknown"));
+
+        assertThat(sut).containsExactly(ALDERAAN.getName());
+    }
+
+    @Sql(scripts = "/import_planets.sql")
+    @Test
+    public void findNamesAfter_ReturnsNamesOrderedById() {
+        List<PlanetName> sut = repository.findNamesAfter(TATOOINE.getId(), Limit.of(10));
+
+        assertThat(sut).containsExactly(
+                new PlanetName(ALDERAAN.getId(), ALDERAAN.getName()),
+                new PlanetName(YAVIN_IV.getId(), YAVIN_IV.getName()));
+    }
+
+    @Sql(scripts = "/import_planets.sql")
+    @Test
+    public void findMaxId_ReturnsHighestIdOrEmpty() {
+        assertThat(repository.findMaxId()).contains(YAVIN_IV.getId());
+
+        repository.deleteAllInBatch();
+
+        assertThat(repository.findMaxId()).isEmpty();
+    }
+
     @Sql("/import_planets.sql")
     @Test
     public void findById_ByExistingId_ReturnsPlanet(){
@@ -73,6 +126,54 @@ class PlanetRepositoryTest {
         assertThat(optionalPlanet.get()).isEqualTo(ALDERAAN);
     }
 
+    @Sql(scripts = "/import_planets.sql")
+    @Test
+    public void findViewById_ByExistingId_ReturnsProjectionWithoutManagingEntity() {
+        Optional<PlanetView> sut = repository.findViewById(1L);
+
+        assertThat(sut).contains(TATOOINE_VIEW);
+        assertThat(testEntityManager.getEntityManager().unwrap(Session.class).getStatistics().getEntityCount()).isZero();
+    }
+
+    @Sql(scripts = "/import_planets.sql")
+    @Test
+    public void findViewByName_ByExistingName_ReturnsProjection() {
+        assertThat(repository.findViewByName(ALDERAAN.getName())).contains(ALDERAAN_VIEW);
+        assertThat(repository.findViewByName("name")).isEmpty();
+    }
+
+    @Sql(scripts = "/import_planets.sql")
+    @Test
+    public void findByIdsOrNames_ReturnsPlanetsMatchingEither() {
+        List<PlanetView> sut = repository.findByIdsOrNames(List.of(1L, 99L), List.of(YAVIN_IV.getName(), "name"));
+
+        assertThat(sut).containsExactlyInAnyOrder(TATOOINE_VIEW, YAVIN_IV_VIEW);
+    }
+
+    @Sql(scripts = "/import_planets.sql")
+    @Test
+    public void findByIdsOrNames_WithOnlyIds_ReturnsPlanets() {
+        List<PlanetView> sut = repository.findByIdsOrNames(List.of(2L, 3L), List.of());
+
+        assertThat(sut).containsExactlyInAnyOrder(ALDERAAN_VIEW, YAVIN_IV_VIEW);
+    }
+
+    @Sql(scripts = "/import_planets.sql")
+    @Test
+    public void countByTag_WithoutFilter_CountsEachSplitValue() {
+        Map<String, Long> sut = repository.countByTag("climateTags", PlanetFilter.of(null, null).toSpecification());
+
+        assertThat(sut).containsExactly(entry("temperate", 2L), entry("arid", 1L), entry("tropical", 1L));
+    }
+
+    @Sql(scripts = "/import_planets.sql")
+    @Test
+    public void countByTag_WithFilter_CountsMatchingPlanetsOnly() {
+        Map<String, Long> sut = repository.countByTag("terrainTags", PlanetFilter.of(null, "temperate").toSpecification());
+
+        assertThat(sut).containsOnly(entry("grasslands", 1L), entry("mountains", 1L), entry("jungle", 1L), entry("rainforest", 1L));
+    }
+
     @Test
     public void findByName_ByUnexistingName_ReturnsEmpty() {
         Optional<Planet> optionalPlanet = repository.findByName("name");
@@ -105,6 +206,82 @@ class PlanetRepositoryTest {
         assertThat(sut.getFirst()).isEqualTo(TATOOINE);
     }
 
+    @Sql(scripts = "/import_planets.sql")
+    @Test
+    public void listPlanetsPage_AfterCursor_ReturnsNextPlanetsOrderedById(){
+        List<PlanetView> sut = repository.findPage(PlanetFilter.of(null, null).toSpecification(), TATOOINE.getId(), 1);
+
+        assertThat(sut).containsExactly(ALDERAAN_VIEW);
+    }
+
+    @Sql(scripts = "/import_planets.sql")
+    @Test
+    public void listPlanetsPage_WithTagFilter_ReturnsPlanetsHavingAllTags(){
+        Specification<Planet> filter = PlanetFilter.of("Mountains, grasslands", "temperate").toSpecification();
+
+        List<PlanetView> sut = repository.findPage(filter, null, 10);
+
+        assertThat(sut).containsExactly(ALDERAAN_VIEW);
+        assertThat(repository.count(filter)).isEqualTo(1);
+    }
+
+    @Sql(scripts = "/import_planets.sql")
+    @Test
+    public void listPlanetsPage_WithPartialTag_ReturnsNoPlanet(){
+        List<PlanetView> sut = repository.findPage(PlanetFilter.of(null, "temp").toSpecification(), null, 10);
+
+        assertThat(sut).isEmpty();
+    }
+
+    @Sql(scripts = "/import_planets.sql")
+    @Test
+    public void listPlanetsPage_WithContainsFilter_ReturnsFilteredPlanets(){
+        Specification<Planet> filter = new PlanetFilter(null, "TEMP", PlanetFilter.Match.CONTAINS).toSpecification();
+
+        List<PlanetView> sut = repository.findPage(filter, null, 10);
+
+        assertThat(sut).containsExactly(ALDERAAN_VIEW, YAVIN_IV_VIEW);
+        assertThat(repository.count(filter)).isEqualTo(2);
+    }
+
+    @Test
+    public void createPlanet_IndexesTags_SoTagFilterFindsIt(){
+        Planet planet = repository.saveAndFlush(new Planet("Hoth", "Frozen", "tundra, ice caves"));
+        testEntityManager.clear();
+
+        List<PlanetView> sut = repository.findPage(PlanetFilter.of("ice caves", "frozen").toSpecification(), null, 10);
+
+        assertThat(sut).extracting(PlanetView::id).containsExactly(planet.getId());
+    }
+
+    @Test
+    public void createPlanets_InBatch_IndexesTags(){
+        repository.insertAll(List.of(new Planet("Hoth", "frozen", "tundra, ice caves")));
+
+        List<PlanetView> sut = repository.findPage(PlanetFilter.of("tundra", null).toSpecification(), null, 10);
+
+        assertThat(sut).extracting(PlanetView::name).containsExactly("Hoth");
+    }
+
+    @Sql(statements = "INSERT INTO planets (id, name, climate, terrain) VALUES (7, 'Hoth', 'frozen', 'tundra')")
+    @Test
+    public void findUntagged_ReturnsPlanetsWithoutTags(){
+        List<Planet> sut = repository.findUntagged(0L, Limit.of(10));
+
+        assertThat(sut).extracting(Planet::getId).containsExactly(7L);
+    }
+
+    @Sql(scripts = "/import_planets.sql")
+    @Test
+    public void streamPlanets_ReturnsAllPlanetsWithoutManagingThem(){
+        try (Stream<PlanetView> planets = repository.streamAll()) {
+            List<PlanetView> sut = planets.toList();
+
+            assertThat(sut).containsExactly(TATOOINE_VIEW, ALDERAAN_VIEW, YAVIN_IV_VIEW);
+            assertThat(testEntityManager.getEntityManager().unwrap(Session.class).getStatistics().getEntityCount()).isZero();
+        }
+    }
+
     @Test
     public void listPlanets_ReturnsNoPlanet(){
         List<Planet> sut = repository.findAll(QueryBuilder.makeQuery(INVALID_PLANET));
@@ -126,4 +303,40 @@ class PlanetRepositoryTest {
                 .doesNotThrowAnyException();
     }
 
+    @Sql(scripts = "/import_planets.sql")
+    @Test
+    public void deleteWhereId_WithExistingId_RemovesPlanetAndTags(){
+        int deleted = repository.deleteWhereId(YAVIN_IV.getId());
+
+        assertThat(deleted).isEqualTo(1);
+        assertThat(testEntityManager.find(Planet.class, YAVIN_IV.getId())).isNull();
+        assertThat(repository.findPage(PlanetFilter.of("jungle", null).toSpecification(), null, 10)).isEmpty();
+    }
+
+    @Test
+    public void deleteWhereId_WithUnexistingId_ReturnsZero(){
+        assertThat(repository.deleteWhereId(99L)).isZero();
+    }
+
+    @Sql(scripts = "/import_planets.sql")
+    @Test
+    public void deleteAll_ByTagFilter_RemovesMatchingPlanets(){
+        long deleted = repository.delete(PlanetFilter.of(null, "temperate").toDeleteSpecification());
+
+        assertThat(deleted).isEqualTo(2);
+        assertThat(repository.findAll()).containsExactly(TATOOINE);
+    }
+
+    @Sql(scripts = "/import_planets.sql")
+    @Test
+    public void deleteAll_ByContainsFilterAndIds_RemovesMatchingPlanets(){
+        PredicateSpecification<Planet> filter = new PlanetFilter(null, "temp", PlanetFilter.Match.CONTAINS).toDeleteSpecification()
+                .and(QueryBuilder.idIn(List.of(TATOOINE.getId(), YAVIN_IV.getId())));
+
+        long deleted = repository.delete(filter);
+
+        assertThat(deleted).isEqualTo(1);
+        assertThat(repository.findAll()).containsExactly(TATOOINE, ALDERAAN);
+    }
+
 }
\ No newline at end of file
@@ -1,24 +1,38 @@
 package com.br.giulianabezerra.starwars_planet_api.domain;
 
-import static com.br.giulianabezerra.starwars_planet_api.commom.PlanetConstants.INVALID_PLANET;
-import static com.br.giulianabezerra.starwars_planet_api.commom.PlanetConstants.PLANET;
+import static com.br.giulianabezerra.starwars_planet_api.commom.PlanetConstants.*;
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
+import com.br.giulianabezerra.starwars_planet_api.jdbc.ConsistencyTokens;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.api.InstanceOfAssertFactories;
 import org.springframework.data.domain.Example;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.domain.PredicateSpecification;
 import org.springframework.http.HttpStatus;
+import org.springframework.transaction.support.TransactionOperations;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @ExtendWith(MockitoExtension.class)
@@ -26,13 +40,26 @@ import java.util.Optional;
 public class PlanetServiceTest {
 
     //@Autowired
-    @InjectMocks
     private PlanetService planetService;
 
     //@MockitoBean
     @Mock
     private PlanetRepository planetRepository;
 
+    @Mock
+    private PlanetNameFilter nameFilter;
+
+    private final Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+    @BeforeEach
+    void setUp() {
+        PlanetCache cache = new PlanetCache(100, Duration.ofMinutes(10), Duration.ofMinutes(10), 1000, Duration.ofMinutes(10), Duration.ofSeconds(1), new ConsistencyTokens(Duration.ZERO), new SimpleMeterRegistry());
+        planetService = new PlanetService(planetRepository, validator, cache, nameFilter,
+                new PlanetCatalog(planetRepository, false, "", new SimpleMeterRegistry()), 2,
+                TransactionOperations.withoutTransaction());
+        lenient().when(nameFilter.mightExist(any())).thenReturn(true);
+    }
+
     @Test
     public void createPlanet_WithValidData_ReturnsPlanet() {
         //AAA
@@ -55,26 +82,158 @@ public class PlanetServiceTest {
         assertThatThrownBy(() -> planetService.create(INVALID_PLANET)).isInstanceOf(RuntimeException.class);
     }
 
+    @Test
+    public void createPlanets_WithValidData_InsertsInChunks() {
+        List<Planet> planets = List.of(
+                new Planet("a", "climate", "terrain"),
+                new Planet("b", "climate", "terrain"),
+                new Planet("c", "climate", "terrain"));
+
+        PlanetBatchResult sut = planetService.createAll(planets);
+
+        assertThat(sut.allCreated()).isTrue();
+        assertThat(sut.items()).extracting(PlanetBatchResult.Item::index).containsExactly(0, 1, 2);
+        verify(planetRepository).insertAll(List.of(planets.get(0), planets.get(1)));
+        verify(planetRepository).insertAll(List.of(planets.get(2)));
+    }
+
+    @Test
+    public void createPlanets_WithInvalidAndConflictingData_ReportsErrorsPerItem() {
+        Planet valid = new Planet("valid", "climate", "terrain");
+        Planet existing = new Planet("Alderaan", "climate", "terrain");
+        Planet repeated = new Planet("valid", "climate", "terrain");
+        when(planetRepository.findExistingNames(List.of("valid", "Alderaan"))).thenReturn(List.of("Alderaan"));
+
+        PlanetBatchResult sut = planetService.createAll(Arrays.asList(valid, INVALID_PLANET, existing, repeated, null));
+
+        assertThat(sut.items()).extracting(PlanetBatchResult.Item::status).containsExactly(
+                PlanetBatchResult.Status.CREATED,
+                PlanetBatchResult.Status.INVALID,
+                PlanetBatchResult.Status.CONFLICT,
+                PlanetBatchResult.Status.CONFLICT,
+                PlanetBatchResult.Status.INVALID);
+        assertThat(sut.items().get(1).error()).contains("name");
+        verify(planetRepository).insertAll(List.of(valid));
+    }
+
+    @Test
+    public void createPlanets_WithNamesDifferingInCaseOrAccents_ReportsDuplicates() {
+        Planet hoth = new Planet("Hoth", "frozen", "tundra");
+        Planet upperCase = new Planet("HOTH", "frozen", "tundra");
+        Planet accented = new Planet("Hôth", "frozen", "tundra");
+        when(planetRepository.findExistingNames(List.of("Hoth"))).thenReturn(List.of());
+
+        PlanetBatchResult sut = planetService.createAll(List.of(hoth, upperCase, accented));
+
+        assertThat(sut.items()).extracting(PlanetBatchResult.Item::status).containsExactly(
+                PlanetBatchResult.Status.CREATED,
+                PlanetBatchResult.Status.CONFLICT,
+                PlanetBatchResult.Status.CONFLICT);
+        verify(planetRepository).insertAll(List.of(hoth));
+    }
+
+    @Test
+    public void createPlanets_WithExistingNameInOtherCase_ReportsConflict() {
+        Planet planet = new Planet("ALDERAAN", "climate", "terrain");
+        when(planetRepository.findExistingNames(List.of("ALDERAAN"))).thenReturn(List.of("Alderaan"));
+
+        PlanetBatchResult sut = planetService.createAll(List.of(planet));
+
+        assertThat(sut.items()).extracting(PlanetBatchResult.Item::status).containsExactly(PlanetBatchResult.Status.CONFLICT);
+        verify(planetRepository, never()).insertAll(any());
+    }
+
+    @Test
+    public void createPlanets_WithConcurrentConflict_RetriesChunkOneByOne() {
+        Planet first = new Planet("first", "climate", "terrain");
+        Planet taken = new Planet("taken", "climate", "terrain");
+        doAnswer(invocation -> {
+            List<Planet> chunk = invocation.getArgument(0);
+            if (chunk.contains(taken)) {
+                throw new DataIntegrityViolationException("Duplicate entry");
+            }
+            return null;
+        }).when(planetRepository).insertAll(any());
+
+        PlanetBatchResult sut = planetService.createAll(List.of(first, taken));
+
+        assertThat(sut.items()).extracting(PlanetBatchResult.Item::status).containsExactly(
+                PlanetBatchResult.Status.CREATED,
+                PlanetBatchResult.Status.CONFLICT);
+        verify(planetRepository).insertAll(List.of(first));
+    }
+
     @Test
     public void findByIdPlanet_WithExistingId_ReturnsPlanet() {
         Long id = 1L;
 
-        PLANET.setId(1L);
-
-        when(planetRepository.findById(id)).thenReturn(Optional.of(PLANET));
+        when(planetRepository.findViewById(id)).thenReturn(Optional.of(TATOOINE_VIEW));
 
-        Planet sut = planetService.findById(id);
+        PlanetView sut = planetService.findById(id);
 
         assertThat(sut).isNotNull();
-        assertThat(sut.getId()).isEqualTo(PLANET.getId());
-        assertThat(sut).isEqualTo(PLANET);
+        assertThat(sut.id()).isEqualTo(id);
+        assertThat(sut).isEqualTo(TATOOINE_VIEW);
+    }
+
+    @Test
+    public void findByIdPlanet_Twice_QueriesRepositoryOnce() {
+        when(planetRepository.findViewById(1L)).thenReturn(Optional.of(TATOOINE_VIEW));
+
+        planetService.findById(1L);
+        PlanetView sut = planetService.findById(1L);
+
+        assertThat(sut).isEqualTo(TATOOINE_VIEW);
+        verify(planetRepository, times(1)).findViewById(1L);
+    }
+
+    @Test
+    public void findByNamePlanet_AfterFindById_IsServedFromCache() {
+        when(planetRepository.findViewByName(ALDERAAN.getName())).thenReturn(Optional.of(ALDERAAN_VIEW));
+
+        planetService.findByName(ALDERAAN.getName());
+        PlanetView byName = planetService.findByName(ALDERAAN.getName());
+        PlanetView byId = planetService.findById(ALDERAAN.getId());
+
+        assertThat(byName).isEqualTo(ALDERAAN_VIEW);
+        assertThat(byId).isEqualTo(ALDERAAN_VIEW);
+        verify(planetRepository, times(1)).findViewByName(ALDERAAN.getName());
+        verify(planetRepository, never()).findViewById(anyLong());
+    }
+
+    @Test
+    public void deleteByIdPlanet_EvictsCachedPlanet() {
+        when(planetRepository.findViewById(1L)).thenReturn(Optional.of(TATOOINE_VIEW), Optional.empty());
+        when(planetRepository.deleteWhereId(1L)).thenReturn(1);
+
+        planetService.findById(1L);
+        planetService.deleteById(1L);
+
+        assertThatThrownBy(() -> planetService.findById(1L)).isInstanceOf(ResponseStatusException.class);
+        verify(planetRepository, times(2)).findViewById(1L);
+    }
+
+    @Test
+    public void facets_AreCachedUntilNextWrite() {
+        PlanetFilter filter = PlanetFilter.of(null, "temperate");
+        when(planetRepository.countByTag(eq("climateTags"), any())).thenReturn(Map.of("temperate", 2L));
+        when(planetRepository.countByTag(eq("terrainTags"), any())).thenReturn(Map.of("jungle", 1L));
+        when(planetRepository.deleteWhereId(1L)).thenReturn(1);
+
+        PlanetFacets sut = planetService.facets(filter);
+        planetService.facets(filter);
+        planetService.deleteById(1L);
+        planetService.facets(filter);
+
+        assertThat(sut).isEqualTo(new PlanetFacets(Map.of("temperate", 2L), Map.of("jungle", 1L)));
+        verify(planetRepository, times(2)).countByTag(eq("climateTags"), any());
     }
 
     @Test
     public void findByIdPlanet_WithUnexistingId_ThrowsException() {
         Long id = 1L;
 
-        when(planetRepository.findById(id)).thenReturn(Optional.empty());
+        when(planetRepository.findViewById(id)).thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> planetService.findById(id))
                 .isInstanceOf(ResponseStatusException.class)
@@ -86,20 +245,20 @@ public class PlanetServiceTest {
     public void findByNamePlanet_WithExistingName_ReturnsPlanet() {
         String name = "name";
 
-        when(planetRepository.findByName(name)).thenReturn(Optional.of(PLANET));
+        when(planetRepository.findViewByName(name)).thenReturn(Optional.of(PLANET_VIEW));
 
-        Planet sut = planetService.findByName(name);
+        PlanetView sut = planetService.findByName(name);
 
         assertThat(sut).isNotNull();
-        assertThat(sut.getName()).isEqualTo(name);
-        assertThat(sut).isEqualTo(PLANET);
+        assertThat(sut.name()).isEqualTo(name);
+        assertThat(sut).isEqualTo(PLANET_VIEW);
     }
 
     @Test
     public void findByNamePlanet_WithUnexistingName_ThrowsException() {
         String name = "unexisting name";
 
-        when(planetRepository.findByName(name)).thenReturn(Optional.empty());
+        when(planetRepository.findViewByName(name)).thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> planetService.findByName(name))
                 .isInstanceOf(ResponseStatusException.class)
@@ -107,56 +266,258 @@ public class PlanetServiceTest {
                     .isEqualTo(HttpStatus.NOT_FOUND);
     }
 
+    @Test
+    public void findByNamePlanet_WithNameRejectedByFilter_SkipsRepository() {
+        when(nameFilter.mightExist("unknown")).thenReturn(false);
+
+        assertThatThrownBy(() -> planetService.findByName("unknown"))
+                .isInstanceOf(PlanetNotFoundException.class)
+                .extracting(ex -> ((ResponseStatusException) ex).getStatusCode())
+                    .isEqualTo(HttpStatus.NOT_FOUND);
+
+        verifyNoInteractions(planetRepository);
+    }
+
+    @Test
+    public void findByNamePlanet_WithNameAcceptedByFilterButMissing_RecordsFalsePositive() {
+        when(planetRepository.findViewByName("unknown")).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> planetService.findByName("unknown"))
+                .isInstanceOf(PlanetNotFoundException.class);
+
+        verify(nameFilter).recordFalsePositive();
+    }
+
+    @Test
+    public void createPlanet_AddsNameToFilter() {
+        when(planetRepository.save(TATOOINE)).thenReturn(TATOOINE);
+
+        planetService.create(TATOOINE);
+
+        verify(nameFilter).add(TATOOINE.getName());
+    }
+
     @Test
     public void findAllPlanets_ReturnsAllPlanets() {
-       List<Planet> planets = new ArrayList<>() {{
-           add(PLANET);
+       List<PlanetView> planets = new ArrayList<>() {{
+           add(PLANET_VIEW);
        }};
 
-        Example<Planet> query = QueryBuilder.makeQuery(new Planet(PLANET.getClimate(), PLANET.getTerrain()));
+        when(planetRepository.findPage(any(), isNull(), eq(11))).thenReturn(planets);
+
+        PlanetPage sut = planetService.findAll(PlanetFilter.of(PLANET.getTerrain(), PLANET.getClimate()), null, 10);
+
+        assertThat(sut.planets()).isNotEmpty();
+        assertThat(sut.planets()).hasSize(1);
+        assertThat(sut.planets().getFirst()).isEqualTo(PLANET_VIEW);
+        assertThat(sut.nextCursor()).isNull();
+    }
+
+    @Test
+    public void findAllPlanets_AreCachedUntilNextWrite() {
+        PlanetFilter filter = PlanetFilter.of("jungle", null);
+        when(planetRepository.findPage(any(), isNull(), eq(11))).thenReturn(List.of(YAVIN_IV_VIEW));
+        when(planetRepository.save(TATOOINE)).thenReturn(TATOOINE);
+
+        PlanetPage sut = planetService.findAll(filter, null, 10);
+        planetService.findAll(PlanetFilter.of("Jungle", null), null, 10);
+        planetService.create(TATOOINE);
+        planetService.findAll(filter, null, 10);
+
+        assertThat(sut.planets()).containsExactly(YAVIN_IV_VIEW);
+        verify(planetRepository, times(2)).findPage(any(), isNull(), eq(11));
+    }
+
+    @Test
+    public void findAllPlanetsByIdsAndNames_ReturnsPlanetsInRequestedOrder() {
+        when(planetRepository.findByIdsOrNames(List.of(3L, 1L), List.of(ALDERAAN.getName(), TATOOINE.getName())))
+                .thenReturn(PLANET_VIEW_LIST);
+        when(planetRepository.findByIdsOrNames(List.of(99L), List.of())).thenReturn(List.of());
 
-        when(planetRepository.findAll(query)).thenReturn(planets);
+        List<PlanetView> sut = planetService.findAll(List.of(3L, 1L, 99L), List.of(ALDERAAN.getName(), TATOOINE.getName()));
 
-        List<Planet> sut = planetService.findAll(PLANET.getTerrain(), PLANET.getClimate());
+        assertThat(sut).containsExactly(YAVIN_IV_VIEW, TATOOINE_VIEW, ALDERAAN_VIEW);
+    }
+
+    @Test
+    public void findAllPlanetsByIds_LoadsOnlyCacheMisses() {
+        when(planetRepository.findViewById(1L)).thenReturn(Optional.of(TATOOINE_VIEW));
+        planetService.findById(1L);
+        when(planetRepository.findByIdsOrNames(List.of(2L), List.of())).thenReturn(List.of(ALDERAAN_VIEW));
 
-        assertThat(sut).isNotEmpty();
-        assertThat(sut).hasSize(1);
-        assertThat(sut.getFirst()).isEqualTo(PLANET);
+        List<PlanetView> sut = planetService.findAll(List.of(1L, 2L), null);
+
+        assertThat(sut).containsExactly(TATOOINE_VIEW, ALDERAAN_VIEW);
+        assertThat(planetService.findAll(List.of(2L, 1L), null)).containsExactly(ALDERAAN_VIEW, TATOOINE_VIEW);
+        verify(planetRepository, times(1)).findByIdsOrNames(any(), any());
+    }
+
+    @Test
+    public void findAllPlanetsByIds_WithMoreIdsThanBatchSize_QueriesInChunks() {
+        when(planetRepository.findByIdsOrNames(any(), any())).thenReturn(List.of());
+
+        planetService.findAll(List.of(1L, 2L, 3L), List.of("a"));
+
+        verify(planetRepository).findByIdsOrNames(List.of(1L, 2L), List.of("a"));
+        verify(planetRepository).findByIdsOrNames(List.of(3L), List.of());
+    }
+
+    @Test
+    public void findAllPlanetsByNames_WithNamesFilteredOut_DoesNotQuery() {
+        when(nameFilter.mightExist("name")).thenReturn(false);
+
+        assertThat(planetService.findAll(null, List.of("name"))).isEmpty();
+
+        verifyNoInteractions(planetRepository);
+    }
+
+    @Test
+    public void findAllPlanets_WithoutIdsOrNames_ThrowsException() {
+        assertThatThrownBy(() -> planetService.findAll(List.of(), null))
+                .isInstanceOf(ResponseStatusException.class)
+                .extracting(ex -> ((ResponseStatusException) ex).getStatusCode())
+                    .isEqualTo(HttpStatus.BAD_REQUEST);
     }
 
     @Test
     public void findAllPlanets_ReturnsNoPlanets() {
-        when(planetRepository.findAll(any(Example.class))).thenReturn(Collections.emptyList());
+        when(planetRepository.findPage(any(), any(), anyInt())).thenReturn(Collections.emptyList());
+
+        PlanetPage sut = planetService.findAll(PlanetFilter.of(PLANET.getTerrain(), PLANET.getClimate()), null, 10);
+
+        assertThat(sut.planets()).isEmpty();;
+        assertThat(sut.nextCursor()).isNull();
+    }
+
+    @Test
+    public void findAllPlanets_WithMoreRowsThanLimit_ReturnsNextCursor() {
+        when(planetRepository.findPage(any(), eq(1L), eq(3))).thenReturn(PLANET_VIEW_LIST);
+
+        PlanetPage sut = planetService.findAll(PlanetFilter.of(null, null), PlanetPage.encodeCursor(1L), 2);
+
+        assertThat(sut.planets()).containsExactly(TATOOINE_VIEW, ALDERAAN_VIEW);
+        assertThat(sut.nextCursor()).isEqualTo(PlanetPage.encodeCursor(ALDERAAN.getId()));
+    }
+
+    @Test
+    public void findAllPlanets_WithInvalidCursor_ThrowsException() {
+        assertThatThrownBy(() -> planetService.findAll(PlanetFilter.of(null, null), "not a cursor", 10))
+                .isInstanceOf(ResponseStatusException.class)
+                .extracting(ex -> ((ResponseStatusException) ex).getStatusCode())
+                    .isEqualTo(HttpStatus.BAD_REQUEST);
 
-        List<Planet> sut = planetService.findAll(PLANET.getTerrain(), PLANET.getClimate());
+        verifyNoInteractions(planetRepository);
+    }
+
+    @Test
+    public void indexTags_WithUntaggedPlanets_IndexesThemAndReturnsLastId() {
+        Planet untagged = new Planet(5L, "Hoth", "frozen", "tundra, ice caves");
+        when(planetRepository.findUntagged(0L, Limit.of(10))).thenReturn(List.of(untagged));
 
-        assertThat(sut).isEmpty();;
+        Long sut = planetService.indexTags(null, 10);
+
+        assertThat(sut).isEqualTo(5L);
+        assertThat(untagged).extracting("terrainTags").asInstanceOf(InstanceOfAssertFactories.ITERABLE)
+                .containsExactly("tundra", "ice caves");
+    }
+
+    @Test
+    public void indexTags_WithoutUntaggedPlanets_ReturnsNull() {
+        when(planetRepository.findUntagged(5L, Limit.of(10))).thenReturn(List.of());
+
+        assertThat(planetService.indexTags(5L, 10)).isNull();
+    }
+
+    @Test
+    public void forEachPlanet_VisitsAllPlanets() {
+        when(planetRepository.streamAll()).thenReturn(PLANET_VIEW_LIST.stream());
+        List<PlanetView> visited = new ArrayList<>();
+
+        planetService.forEach(visited::add);
+
+        assertThat(visited).containsExactlyElementsOf(PLANET_VIEW_LIST);
+    }
+
+    @Test
+    public void findPlanets_WithCatalog_AreServedWithoutQueries() {
+        PlanetService sut = withCatalog();
+
+        assertThat(sut.findById(ALDERAAN.getId())).isEqualTo(ALDERAAN_VIEW);
+        assertThat(sut.findByName("tatooine")).isEqualTo(TATOOINE_VIEW);
+        assertThat(sut.findAll(List.of(YAVIN_IV.getId()), List.of("Tatooine", "Hoth"))).containsExactly(YAVIN_IV_VIEW, TATOOINE_VIEW);
+        assertThat(sut.findAll(PlanetFilter.of(null, "temperate"), null, 1))
+                .isEqualTo(new PlanetPage(List.of(ALDERAAN_VIEW), PlanetPage.encodeCursor(ALDERAAN.getId())));
+        assertThat(sut.count(PlanetFilter.of(null, "temperate"))).isEqualTo(2);
+        assertThatThrownBy(() -> sut.findById(99L)).isInstanceOf(PlanetNotFoundException.class);
+        verify(planetRepository, never()).findViewById(anyLong());
+        verify(planetRepository, never()).findViewByName(any());
+        verify(planetRepository, never()).findByIdsOrNames(any(), any());
+        verifyNoInteractions(nameFilter);
+    }
+
+    @Test
+    public void writePlanets_WithCatalog_UpdateIt() {
+        PlanetService sut = withCatalog();
+        when(planetRepository.save(PLANET)).thenReturn(new Planet(4L, PLANET.getName(), PLANET.getClimate(), PLANET.getTerrain()));
+        when(planetRepository.deleteWhereId(TATOOINE.getId())).thenReturn(1);
+
+        sut.create(PLANET);
+        sut.deleteById(TATOOINE.getId());
+
+        assertThat(sut.findByName(PLANET.getName()).id()).isEqualTo(4L);
+        assertThatThrownBy(() -> sut.findById(TATOOINE.getId())).isInstanceOf(PlanetNotFoundException.class);
+    }
+
+    private PlanetService withCatalog() {
+        when(planetRepository.findPage(any(), isNull(), anyInt())).thenReturn(PLANET_VIEW_LIST);
+        PlanetCache cache = new PlanetCache(100, Duration.ofMinutes(10), Duration.ofMinutes(10), 1000, Duration.ofMinutes(10), Duration.ofSeconds(1), new ConsistencyTokens(Duration.ZERO), new SimpleMeterRegistry());
+        PlanetCatalog catalog = new PlanetCatalog(planetRepository, true, "", new SimpleMeterRegistry());
+        catalog.reload();
+        return new PlanetService(planetRepository, validator, cache, nameFilter, catalog, 2,
+                TransactionOperations.withoutTransaction());
     }
 
     @Test
     public void deleteByIdPlanet_WithExistingId_DoesNotThrowAnyException() {
         Long id = 1L;
 
-        when(planetRepository.existsById(id)).thenReturn(true);
-        doNothing().when(planetRepository).deleteById(id);
+        when(planetRepository.deleteWhereId(id)).thenReturn(1);
 
         assertThatCode(() -> planetService.deleteById(id))
                 .doesNotThrowAnyException();
 
-        verify(planetRepository, times(1)).deleteById(anyLong());
+        verify(planetRepository, times(1)).deleteWhereId(anyLong());
+        verify(planetRepository, never()).existsById(anyLong());
     }
 
     @Test
     public void deleteByIdPlanet_WithUnexistingId_TrowsException() {
         Long id = 99L;
 
-        when(planetRepository.existsById(id)).thenReturn(false);
+        when(planetRepository.deleteWhereId(id)).thenReturn(0);
 
         assertThatThrownBy(() -> planetService.deleteById(id))
                 .isInstanceOf(ResponseStatusException.class)
                 .extracting("status")
                     .isEqualTo(HttpStatus.NOT_FOUND);
+    }
+
+    @Test
+    public void deleteAllPlanets_WithFilter_ReturnsDeletedCount() {
+        when(planetRepository.delete(any(PredicateSpecification.class))).thenReturn(2L);
+
+        long sut = planetService.deleteAll(PlanetFilter.of(null, "temperate"), null);
+
+        assertThat(sut).isEqualTo(2);
+    }
+
+    @Test
+    public void deleteAllPlanets_WithoutFilterOrIds_ThrowsException() {
+        assertThatThrownBy(() -> planetService.deleteAll(PlanetFilter.of(" ", null), List.of()))
+                .isInstanceOf(ResponseStatusException.class)
+                .extracting(ex -> ((ResponseStatusException) ex).getStatusCode())
+                    .isEqualTo(HttpStatus.BAD_REQUEST);
 
-        verify(planetRepository, never()).deleteById(anyLong());
+        verifyNoInteractions(planetRepository);
     }
 }
@@ -0,0 +1,44 @@
+package com.br.giulianabezerra.starwars_planet_api.domain;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.DefaultApplicationArguments;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class PlanetTagBackfillTest {
+
+    @Mock
+    private PlanetService service;
+
+    @Mock
+    private CompletedMigrationRepository migrations;
+
+    @Test
+    public void run_FirstTime_IndexesEveryChunkAndRecordsCompletion() {
+        when(service.indexTags(isNull(), anyInt())).thenReturn(500L);
+        when(service.indexTags(eq(500L), anyInt())).thenReturn(null);
+
+        new PlanetTagBackfill(service, migrations).run(new DefaultApplicationArguments());
+
+        verify(service).indexTags(eq(500L), anyInt());
+        verify(migrations).save(argThat(migration -> migration.getName().equals(PlanetTagBackfill.MIGRATION)));
+    }
+
+    @Test
+    public void run_AfterCompletion_DoesNothing() {
+        when(migrations.existsById(PlanetTagBackfill.MIGRATION)).thenReturn(true);
+
+        new PlanetTagBackfill(service, migrations).run(new DefaultApplicationArguments());
+
+        verifyNoInteractions(service);
+        verify(migrations, never()).save(any());
+    }
+}
@@ -0,0 +1,106 @@
+package com.br.giulianabezerra.starwars_planet_api.domain;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static com.br.giulianabezerra.starwars_planet_api.commom.PlanetConstants.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class SingleFlightTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CountDownLatch loading = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    public void run_WithConcurrentCalls_LoadsOnce() throws Exception {
+        SingleFlight<String, PlanetView> sut = new SingleFlight<>("findByName", Duration.ofSeconds(10), meterRegistry);
+        Supplier<PlanetView> loader = blockingLoader(() -> TATOOINE_VIEW);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<PlanetView> leader = executor.submit(() -> sut.run(TATOOINE.getName(), loader));
+            loading.await();
+            Future<PlanetView> follower = executor.submit(() -> sut.run(TATOOINE.getName(), loader));
+            awaitFollowers(1);
+            release.countDown();
+
+            assertThat(leader.get()).isEqualTo(TATOOINE_VIEW);
+            assertThat(follower.get()).isEqualTo(TATOOINE_VIEW);
+        }
+        assertThat(loads).hasValue(1);
+        assertThat(calls("leader")).isEqualTo(1);
+    }
+
+    @Test
+    public void run_WhenLoadFails_SharesFailure() throws Exception {
+        SingleFlight<String, PlanetView> sut = new SingleFlight<>("findByName", Duration.ofSeconds(10), meterRegistry);
+        Supplier<PlanetView> loader = blockingLoader(() -> { throw new PlanetNotFoundException(); });
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<PlanetView> leader = executor.submit(() -> sut.run("Unexisting", loader));
+            loading.await();
+            Future<PlanetView> follower = executor.submit(() -> sut.run("Unexisting", loader));
+            awaitFollowers(1);
+            release.countDown();
+
+            assertThatThrownBy(leader::get).isInstanceOf(ExecutionException.class).hasCauseInstanceOf(PlanetNotFoundException.class);
+            assertThatThrownBy(follower::get).isInstanceOf(ExecutionException.class).hasCauseInstanceOf(PlanetNotFoundException.class);
+        }
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    public void run_WhenLoadTakesTooLong_LoadsAgain() throws Exception {
+        SingleFlight<String, PlanetView> sut = new SingleFlight<>("findByName", Duration.ofMillis(10), meterRegistry);
+        Supplier<PlanetView> loader = blockingLoader(() -> TATOOINE_VIEW);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<PlanetView> leader = executor.submit(() -> sut.run(TATOOINE.getName(), loader));
+            loading.await();
+
+            assertThat(sut.run(TATOOINE.getName(), () -> {
+                loads.incrementAndGet();
+                return TATOOINE_VIEW;
+            })).isEqualTo(TATOOINE_VIEW);
+            release.countDown();
+            assertThat(leader.get()).isEqualTo(TATOOINE_VIEW);
+        }
+        assertThat(loads).hasValue(2);
+        assertThat(meterRegistry.get("planets.singleflight.timeouts").counter().count()).isEqualTo(1);
+    }
+
+    private Supplier<PlanetView> blockingLoader(Supplier<PlanetView> result) {
+        return () -> {
+            loads.incrementAndGet();
+            loading.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            return result.get();
+        };
+    }
+
+    private void awaitFollowers(int followers) throws InterruptedException {
+        while (calls("follower") < followers) {
+            Thread.sleep(1);
+        }
+    }
+
+    private double calls(String role) {
+        return meterRegistry.get("planets.singleflight.calls").tag("role", role).counter().count();
+    }
+}
@@ -0,0 +1,49 @@
+package com.br.giulianabezerra.starwars_planet_api.jdbc;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ConsistencyTokensTest {
+    private static final Instant WRITTEN_AT = Instant.parse("2026-01-01T00:00:00Z");
+
+    private final String token = new ConsistencyTokens(Duration.ofSeconds(1), Clock.fixed(WRITTEN_AT, ZoneOffset.UTC)).issue();
+
+    @Test
+    public void requiresPrimary_WithinMaxLag_ReturnsTrue() {
+        assertThat(tokensAt(WRITTEN_AT.plusMillis(999)).requiresPrimary(token)).isTrue();
+    }
+
+    @Test
+    public void requiresPrimary_AfterMaxLag_ReturnsFalse() {
+        assertThat(tokensAt(WRITTEN_AT.plusSeconds(1)).requiresPrimary(token)).isFalse();
+    }
+
+    @Test
+    public void requiresPrimary_WithMissingOrMalformedToken_ReturnsFalse() {
+        assertThat(tokensAt(WRITTEN_AT).requiresPrimary(null)).isFalse();
+        assertThat(tokensAt(WRITTEN_AT).requiresPrimary("not-a-token")).isFalse();
+    }
+
+    @Test
+    public void requiresPrimary_WithTokenFromFuture_ReturnsFalse() {
+        assertThat(tokensAt(WRITTEN_AT.minusMillis(1)).requiresPrimary(token)).isFalse();
+        assertThat(tokensAt(WRITTEN_AT).requiresPrimary("99999999999999")).isFalse();
+    }
+
+    @Test
+    public void requiresPrimary_WithoutReplicas_ReturnsFalse() {
+        ConsistencyTokens sut = new ConsistencyTokens(Duration.ofSeconds(1), "");
+
+        assertThat(sut.requiresPrimary(sut.issue())).isFalse();
+    }
+
+    private static ConsistencyTokens tokensAt(Instant now) {
+        return new ConsistencyTokens(Duration.ofSeconds(1), Clock.fixed(now, ZoneOffset.UTC));
+    }
+}
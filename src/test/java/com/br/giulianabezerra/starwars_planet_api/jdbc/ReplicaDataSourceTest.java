@@ -0,0 +1,90 @@
+package com.br.giulianabezerra.starwars_planet_api.jdbc;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ReplicaDataSourceTest {
+
+    @Mock
+    private DataSource primary;
+
+    @Mock
+    private DataSource replica1;
+
+    @Mock
+    private DataSource replica2;
+
+    @Mock
+    private Connection primaryConnection;
+
+    @Mock
+    private Connection replica1Connection;
+
+    @Mock
+    private Connection replica2Connection;
+
+    private ReplicaDataSource sut;
+
+    @BeforeEach
+    void setUp() {
+        sut = new ReplicaDataSource(primary, List.of(replica1, replica2), Duration.ofMinutes(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        PrimaryReads.stop();
+    }
+
+    @Test
+    public void getConnection_AlternatesBetweenReplicas() throws SQLException {
+        when(replica1.getConnection()).thenReturn(replica1Connection);
+        when(replica2.getConnection()).thenReturn(replica2Connection);
+
+        assertThat(List.of(sut.getConnection(), sut.getConnection(), sut.getConnection()))
+                .containsExactly(replica1Connection, replica2Connection, replica1Connection);
+        verifyNoInteractions(primary);
+    }
+
+    @Test
+    public void getConnection_WithFailingReplica_SkipsItUntilRetryInterval() throws SQLException {
+        when(replica1.getConnection()).thenThrow(new SQLTransientConnectionException("down"));
+        when(replica2.getConnection()).thenReturn(replica2Connection);
+
+        assertThat(List.of(sut.getConnection(), sut.getConnection(), sut.getConnection()))
+                .containsOnly(replica2Connection);
+        verify(replica1, times(1)).getConnection();
+    }
+
+    @Test
+    public void getConnection_WithAllReplicasFailing_FallsBackToPrimary() throws SQLException {
+        when(replica1.getConnection()).thenThrow(new SQLTransientConnectionException("down"));
+        when(replica2.getConnection()).thenThrow(new SQLTransientConnectionException("down"));
+        when(primary.getConnection()).thenReturn(primaryConnection);
+
+        assertThat(sut.getConnection()).isSameAs(primaryConnection);
+    }
+
+    @Test
+    public void getConnection_WithPrimaryReads_UsesPrimary() throws SQLException {
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        PrimaryReads.start();
+
+        assertThat(sut.getConnection()).isSameAs(primaryConnection);
+        verifyNoInteractions(replica1, replica2);
+    }
+}
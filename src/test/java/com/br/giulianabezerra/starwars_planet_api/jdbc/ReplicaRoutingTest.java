@@ -0,0 +1,64 @@
+package com.br.giulianabezerra.starwars_planet_api.jdbc;
+
+import com.br.giulianabezerra.starwars_planet_api.domain.Planet;
+import com.br.giulianabezerra.starwars_planet_api.web.ConsistencyTokenFilter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.web.client.RestClient;
+
+import java.util.List;
+
+import static com.br.giulianabezerra.starwars_planet_api.commom.PlanetConstants.*;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Two in-memory databases: the primary gets import_planets.sql, the replica only has Tatooine.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:primary;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "planets.datasource.replica-urls=jdbc:h2:mem:replica;MODE=MySQL;DB_CLOSE_DELAY=-1;INIT=RUNSCRIPT FROM 'classpath:replica_planets.sql'",
+        "planets.datasource.replica-max-lag=1m"
+})
+@Sql("/import_planets.sql")
+public class ReplicaRoutingTest {
+
+    @LocalServerPort
+    private int port;
+
+    private RestClient restClient;
+
+    @BeforeEach
+    void setUp() {
+        restClient = RestClient.builder()
+                .baseUrl("http://localhost:" + port + "/planets")
+                .build();
+    }
+
+    @Test
+    public void listPlanets_WithoutToken_ReadsFromReplica() {
+        List<Planet> sut = restClient.get().uri("").retrieve().body(new ParameterizedTypeReference<>() {});
+
+        assertThat(sut).containsExactly(TATOOINE);
+    }
+
+    @Test
+    public void listPlanets_WithTokenOfRecentWrite_ReadsFromPrimary() {
+        ResponseEntity<Planet> created = restClient.post().uri("").body(PLANET).retrieve().toEntity(Planet.class);
+        String token = created.getHeaders().getFirst(ConsistencyTokenFilter.HEADER);
+
+        List<Planet> sut = restClient.get()
+                .uri("")
+                .header(ConsistencyTokenFilter.HEADER, token)
+                .retrieve()
+                .body(new ParameterizedTypeReference<>() {});
+
+        assertThat(token).isNotNull();
+        assertThat(sut).hasSize(4).contains(TATOOINE, ALDERAAN, YAVIN_IV);
+    }
+}
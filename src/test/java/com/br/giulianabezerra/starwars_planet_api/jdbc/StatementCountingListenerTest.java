@@ -0,0 +1,80 @@
+package com.br.giulianabezerra.starwars_planet_api.jdbc;
+
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class StatementCountingListenerTest {
+
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        JdbcDataSource target = new JdbcDataSource();
+        target.setURL("jdbc:h2:mem:counting;DB_CLOSE_DELAY=-1");
+        jdbcTemplate = new JdbcTemplate(ProxyDataSourceBuilder.create(target)
+                .listener(new StatementCountingListener(Duration.ofSeconds(1)))
+                .build());
+        jdbcTemplate.execute("create table if not exists items (id int primary key)");
+        jdbcTemplate.execute("delete from items");
+    }
+
+    @AfterEach
+    void tearDown() {
+        SqlStatistics.stop();
+    }
+
+    @Test
+    public void execute_WhileCounting_CountsEachStatementAndBatchOnce() {
+        SqlStatistics sut = SqlStatistics.start();
+
+        jdbcTemplate.batchUpdate("insert into items (id) values (?)", List.of(new Object[]{1}, new Object[]{2}));
+        jdbcTemplate.queryForObject("select count(*) from items", Integer.class);
+        jdbcTemplate.update("delete from items where id = ?", 1);
+
+        assertThat(sut.statements()).isEqualTo(3);
+        assertThat(sut.time()).isPositive();
+    }
+
+    @Test
+    public void execute_AfterStop_IsNotCounted() {
+        SqlStatistics sut = SqlStatistics.start();
+        jdbcTemplate.queryForObject("select count(*) from items", Integer.class);
+        SqlStatistics.stop();
+
+        jdbcTemplate.queryForObject("select count(*) from items", Integer.class);
+
+        assertThat(sut.statements()).isEqualTo(1);
+    }
+
+    @Test
+    public void execute_InNestedScope_IsCountedInBothScopes() {
+        SqlStatistics sut = SqlStatistics.start();
+        jdbcTemplate.queryForObject("select count(*) from items", Integer.class);
+
+        SqlStatistics inner = SqlStatistics.start();
+        jdbcTemplate.queryForObject("select count(*) from items", Integer.class);
+        SqlStatistics.stop();
+
+        assertThat(inner.statements()).isEqualTo(1);
+        assertThat(sut.statements()).isEqualTo(2);
+    }
+
+    @Test
+    public void execute_OnAnotherThread_IsNotCounted() throws InterruptedException {
+        SqlStatistics sut = SqlStatistics.start();
+
+        Thread other = Thread.ofVirtual().start(() -> jdbcTemplate.queryForObject("select count(*) from items", Integer.class));
+        other.join();
+
+        assertThat(sut.statements()).isZero();
+    }
+}
@@ -0,0 +1,108 @@
+package com.br.giulianabezerra.starwars_planet_api.jfr;
+
+import com.br.giulianabezerra.starwars_planet_api.domain.PlanetCache;
+import com.br.giulianabezerra.starwars_planet_api.domain.PlanetCatalog;
+import com.br.giulianabezerra.starwars_planet_api.domain.PlanetNameFilter;
+import com.br.giulianabezerra.starwars_planet_api.domain.PlanetNotFoundException;
+import com.br.giulianabezerra.starwars_planet_api.domain.PlanetRepository;
+import com.br.giulianabezerra.starwars_planet_api.domain.PlanetService;
+import com.br.giulianabezerra.starwars_planet_api.jdbc.ConsistencyTokens;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static com.br.giulianabezerra.starwars_planet_api.commom.PlanetConstants.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class PlanetOperationRecorderTest {
+
+    @Mock
+    private PlanetRepository planetRepository;
+
+    @Mock
+    private PlanetNameFilter nameFilter;
+
+    @TempDir
+    private Path tempDir;
+
+    private PlanetService planetService;
+
+    @BeforeEach
+    void setUp() {
+        PlanetCache cache = new PlanetCache(100, Duration.ofMinutes(10), Duration.ofMinutes(10), 1000, Duration.ofMinutes(10), Duration.ofSeconds(1), new ConsistencyTokens(Duration.ZERO), new SimpleMeterRegistry());
+        AspectJProxyFactory factory = new AspectJProxyFactory(new PlanetService(planetRepository,
+                Validation.buildDefaultValidatorFactory().getValidator(), cache, nameFilter,
+                new PlanetCatalog(planetRepository, false, "", new SimpleMeterRegistry()), 2,
+                TransactionOperations.withoutTransaction()));
+        factory.setProxyTargetClass(true);
+        factory.addAspect(new PlanetOperationRecorder());
+        planetService = factory.getProxy();
+    }
+
+    @Test
+    public void findById_WhileRecording_EmitsEventWithArgumentsAndResultSize() throws IOException {
+        when(planetRepository.findViewById(1L)).thenReturn(Optional.of(TATOOINE_VIEW));
+
+        List<RecordedEvent> sut = record(() -> planetService.findById(1L));
+
+        assertThat(sut).singleElement().satisfies(event -> {
+            assertThat(event.getString("operation")).isEqualTo("findById");
+            assertThat(event.getString("arguments")).isEqualTo("1");
+            assertThat(event.getInt("resultSize")).isEqualTo(1);
+            assertThat(event.getString("error")).isNull();
+        });
+    }
+
+    @Test
+    public void findById_WithUnexistingId_EmitsEventWithError() throws IOException {
+        when(planetRepository.findViewById(99L)).thenReturn(Optional.empty());
+
+        List<RecordedEvent> sut = record(() -> assertThatThrownBy(() -> planetService.findById(99L))
+                .isInstanceOf(PlanetNotFoundException.class));
+
+        assertThat(sut).singleElement()
+                .satisfies(event -> assertThat(event.getString("error")).isEqualTo("PlanetNotFoundException"));
+    }
+
+    @Test
+    public void findById_WithoutRecording_EmitsNothing() throws IOException {
+        when(planetRepository.findViewById(1L)).thenReturn(Optional.of(TATOOINE_VIEW));
+        planetService.findById(1L);
+
+        List<RecordedEvent> sut = record(() -> {
+        });
+
+        assertThat(sut).isEmpty();
+    }
+
+    private List<RecordedEvent> record(Runnable action) throws IOException {
+        Path file = tempDir.resolve("planets.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(PlanetOperationEvent.NAME);
+            recording.start();
+            action.run();
+            recording.stop();
+            recording.dump(file);
+        }
+        return RecordingFile.readAllEvents(file);
+    }
+}
@@ -0,0 +1,26 @@
+package com.br.giulianabezerra.starwars_planet_api.web;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BinaryFormatTest {
+
+    @Test
+    public void negotiate_WithBinaryTypeAsked_ReturnsIt() {
+        assertThat(negotiate("application/cbor")).isEqualTo(BinaryFormat.CBOR);
+        assertThat(negotiate("application/json;q=0.5, application/x-jackson-smile")).isEqualTo(BinaryFormat.SMILE);
+    }
+
+    @Test
+    public void negotiate_WithJsonPreferredOrWildcard_ReturnsJson() {
+        assertThat(negotiate("*/*")).isNull();
+        assertThat(negotiate("application/cbor, application/json")).isNull();
+        assertThat(negotiate("application/cbor;q=0.5, */*")).isNull();
+    }
+
+    private static BinaryFormat negotiate(String accept) {
+        return BinaryFormat.negotiate(MediaType.parseMediaTypes(accept));
+    }
+}
@@ -1,32 +1,65 @@
 package com.br.giulianabezerra.starwars_planet_api.web;
 
+import com.br.giulianabezerra.starwars_planet_api.domain.Planet;
+import com.br.giulianabezerra.starwars_planet_api.domain.PlanetBatchResult;
+import com.br.giulianabezerra.starwars_planet_api.domain.PlanetFacets;
+import com.br.giulianabezerra.starwars_planet_api.domain.PlanetFilter;
+import com.br.giulianabezerra.starwars_planet_api.domain.IngestQueueFullException;
+import com.br.giulianabezerra.starwars_planet_api.domain.PlanetIngestQueue;
+import com.br.giulianabezerra.starwars_planet_api.domain.PlanetIngestStatus;
+import com.br.giulianabezerra.starwars_planet_api.domain.PlanetPage;
 import com.br.giulianabezerra.starwars_planet_api.domain.PlanetService;
+import com.br.giulianabezerra.starwars_planet_api.domain.PlanetView;
+import com.br.giulianabezerra.starwars_planet_api.jdbc.ConsistencyTokens;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
+import org.springframework.context.annotation.Import;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.web.server.ResponseStatusException;
 import tools.jackson.databind.ObjectMapper;
+import tools.jackson.dataformat.cbor.CBORMapper;
+import tools.jackson.dataformat.smile.SmileMapper;
 
+import java.io.ByteArrayInputStream;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
 
 import static com.br.giulianabezerra.starwars_planet_api.commom.PlanetConstants.*;
+import static com.br.giulianabezerra.starwars_planet_api.commom.StatementBudget.withinStatementBudget;
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.hamcrest.Matchers.hasSize;
 
 @WebMvcTest(PlanetController.class)
+@Import({ConsistencyTokens.class, PlanetJsonCache.class})
+@TestPropertySource(properties = {
+        "planets.datasource.replica-urls=jdbc:mysql://replica/starwars",
+        "planets.sql.response-headers=true"})
 public class PlanetControllerTest {
 
     @Autowired
@@ -38,11 +71,15 @@ public class PlanetControllerTest {
     @MockitoBean
     private PlanetService planetService;
 
+    @MockitoBean
+    private PlanetIngestQueue ingestQueue;
+
     @Test
     public void createPlanet_WithValidDate_Returns202Created() throws Exception {
         when(planetService.create(PLANET)).thenReturn(PLANET);
 
-        mockMvc.perform(post("/planets").content(objMapper.writeValueAsBytes(PLANET)).contentType(MediaType.APPLICATION_JSON)).andExpect(status().isCreated()).andExpect(jsonPath("$").value(PLANET));
+        mockMvc.perform(post("/planets").content(objMapper.writeValueAsBytes(PLANET)).contentType(MediaType.APPLICATION_JSON)).andExpect(status().isCreated()).andExpect(jsonPath("$").value(PLANET))
+                .andExpect(header().exists(ConsistencyTokenFilter.HEADER));
     }
 
     @Test
@@ -62,15 +99,173 @@ public class PlanetControllerTest {
 
     }
 
+    @Test
+    public void createPlanets_WithAllCreated_Returns201Created() throws Exception {
+        PlanetBatchResult result = new PlanetBatchResult(List.of(
+                new PlanetBatchResult.Item(0, PlanetBatchResult.Status.CREATED, TATOOINE, null)));
+        when(planetService.createAll(any())).thenReturn(result);
+
+        mockMvc.perform(post("/planets/batch").content(objMapper.writeValueAsBytes(List.of(TATOOINE))).contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.items[0].planet").value(TATOOINE));
+    }
+
+    @Test
+    public void createPlanets_WithConflicts_Returns207MultiStatus() throws Exception {
+        PlanetBatchResult result = new PlanetBatchResult(List.of(
+                new PlanetBatchResult.Item(0, PlanetBatchResult.Status.CREATED, TATOOINE, null),
+                new PlanetBatchResult.Item(1, PlanetBatchResult.Status.CONFLICT, null, "Name already exists")));
+        when(planetService.createAll(any())).thenReturn(result);
+
+        mockMvc.perform(post("/planets/batch").content(objMapper.writeValueAsBytes(List.of(TATOOINE, ALDERAAN))).contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isMultiStatus())
+                .andExpect(jsonPath("$.items[1].status").value("CONFLICT"));
+    }
+
+    @Test
+    public void createPlanets_WithEmptyList_Returns400BadRequest() throws Exception {
+        mockMvc.perform(post("/planets/batch").content("[]").contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void ingestPlanet_WithValidData_Returns202AcceptedWithTrackingId() throws Exception {
+        UUID id = UUID.randomUUID();
+        when(ingestQueue.submit(PLANET)).thenReturn(id);
+        when(ingestQueue.status(id)).thenReturn(Optional.of(new PlanetIngestStatus(id, PlanetIngestStatus.State.PENDING, null, null)));
+
+        mockMvc.perform(post("/planets/ingest").content(objMapper.writeValueAsBytes(PLANET)).contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "/planets/ingest/" + id))
+                .andExpect(jsonPath("$.id").value(id.toString()))
+                .andExpect(jsonPath("$.state").value("PENDING"));
+    }
+
+    @Test
+    public void ingestPlanet_WithInvalidData_Returns422UnprocessableEntity() throws Exception {
+        mockMvc.perform(post("/planets/ingest").content(objMapper.writeValueAsBytes(INVALID_PLANET)).contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isUnprocessableEntity());
+
+        verifyNoInteractions(ingestQueue);
+    }
+
+    @Test
+    public void ingestPlanet_WithFullQueue_Returns429TooManyRequests() throws Exception {
+        when(ingestQueue.submit(any())).thenThrow(new IngestQueueFullException());
+
+        mockMvc.perform(post("/planets/ingest").content(objMapper.writeValueAsBytes(PLANET)).contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "1"));
+    }
+
+    @Test
+    public void ingestStatus_ByConflictingPlanet_ReturnsConflict() throws Exception {
+        UUID id = UUID.randomUUID();
+        when(ingestQueue.status(id)).thenReturn(Optional.of(
+                new PlanetIngestStatus(id, PlanetIngestStatus.State.CONFLICT, null, "Name already exists")));
+
+        mockMvc.perform(get("/planets/ingest/" + id))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.state").value("CONFLICT"))
+                .andExpect(jsonPath("$.error").value("Name already exists"));
+    }
+
+    @Test
+    public void ingestStatus_ByUnknownId_Returns404NotFound() throws Exception {
+        mockMvc.perform(get("/planets/ingest/" + UUID.randomUUID()))
+                .andExpect(status().isNotFound());
+    }
+
     @Test
     public void findById_ByExistingId_ReturnsPlanet() throws Exception {
-        when(planetService.findById(1L)).thenReturn(PLANET);
+        when(planetService.findById(1L)).thenReturn(PLANET_VIEW);
         mockMvc.perform(
                 get("/planets/id/{id}", 1L)
                 )
                 .andDo(print())
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$").value(PLANET));
+                .andExpect(jsonPath("$").value(PLANET))
+                .andExpect(withinStatementBudget(0));
+    }
+
+    @Test
+    public void findById_AcceptingGzip_ReturnsGzippedPlanet() throws Exception {
+        PlanetView planet = new PlanetView(1L, "Tatooine", "arid", "desert, ".repeat(40) + "canyons");
+        when(planetService.findById(1L)).thenReturn(planet);
+
+        MvcResult result = mockMvc.perform(
+                        get("/planets/id/{id}", 1L).header("Accept-Encoding", "deflate, gzip;q=0.8")
+                )
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andReturn();
+
+        byte[] json = new GZIPInputStream(new ByteArrayInputStream(result.getResponse().getContentAsByteArray())).readAllBytes();
+        assertThat(objMapper.readValue(json, PlanetView.class)).isEqualTo(planet);
+    }
+
+    @Test
+    public void findById_AcceptingGzipOfSmallPlanet_ReturnsPlainPlanet() throws Exception {
+        when(planetService.findById(1L)).thenReturn(TATOOINE_VIEW);
+
+        mockMvc.perform(
+                        get("/planets/id/{id}", 1L).header("Accept-Encoding", "gzip")
+                )
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Content-Encoding"))
+                .andExpect(jsonPath("$").value(TATOOINE));
+    }
+
+    @Test
+    public void findById_RefusingGzip_ReturnsPlainPlanet() throws Exception {
+        when(planetService.findById(1L)).thenReturn(TATOOINE_VIEW);
+
+        mockMvc.perform(
+                        get("/planets/id/{id}", 1L).header("Accept-Encoding", "gzip;q=0")
+                )
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Content-Encoding"))
+                .andExpect(jsonPath("$").value(TATOOINE));
+    }
+
+    @Test
+    public void findById_WithCurrentETag_Returns304NotModified() throws Exception {
+        when(planetService.findById(1L)).thenReturn(TATOOINE_VIEW);
+        String etag = mockMvc.perform(get("/planets/id/{id}", 1L))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/planets/id/{id}", 1L).header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", etag))
+                .andExpect(content().bytes(new byte[0]));
+    }
+
+    @Test
+    public void findById_WithChangedVersion_ReturnsPlanet() throws Exception {
+        PlanetView updated = new PlanetView(TATOOINE.getId(), TATOOINE.getName(), "arid, windy", TATOOINE.getTerrain(), 1L);
+        when(planetService.findById(1L)).thenReturn(TATOOINE_VIEW, updated);
+        String etag = mockMvc.perform(get("/planets/id/{id}", 1L))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/planets/id/{id}", 1L).header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.climate").value("arid, windy"));
+    }
+
+    @Test
+    public void findById_AcceptingCbor_ReturnsCborPlanet() throws Exception {
+        when(planetService.findById(1L)).thenReturn(TATOOINE_VIEW);
+
+        MvcResult result = mockMvc.perform(
+                        get("/planets/id/{id}", 1L).accept(MediaType.APPLICATION_CBOR)
+                )
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn();
+
+        PlanetView planet = CBORMapper.builder().build().readValue(result.getResponse().getContentAsByteArray(), PlanetView.class);
+        assertThat(planet).isEqualTo(TATOOINE_VIEW);
     }
 
     @Test
@@ -84,11 +279,44 @@ public class PlanetControllerTest {
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    public void findById_WithoutFreeConnection_Returns503ServiceUnavailable() throws Exception {
+        when(planetService.findById(1L)).thenThrow(new CannotCreateTransactionException("Connection is not available"));
+
+        mockMvc.perform(
+                get("/planets/id/{id}", 1L)
+                )
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"));
+    }
+
+    @Test
+    public void findAllById_ReturnsPlanetsInRequestedOrder() throws Exception {
+        when(planetService.findAll(List.of(3L, 1L), List.of())).thenReturn(List.of(YAVIN_IV_VIEW, TATOOINE_VIEW));
+
+        mockMvc.perform(get("/planets").param("ids", "3,1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(3))
+                .andExpect(jsonPath("$[1].id").value(1));
+    }
+
+    @Test
+    public void lookupPlanets_ByIdsAndNames_ReturnsPlanets() throws Exception {
+        when(planetService.findAll(List.of(1L), List.of(ALDERAAN.getName()))).thenReturn(List.of(TATOOINE_VIEW, ALDERAAN_VIEW));
+
+        mockMvc.perform(post("/planets/lookup")
+                        .content("{\"ids\":[1],\"names\":[\"Alderaan\"]}")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name").value(TATOOINE.getName()))
+                .andExpect(jsonPath("$[1].name").value(ALDERAAN.getName()));
+    }
+
     @Test
     public void findByName_ByExistingName_ReturnsPlanet() throws Exception {
         String name = "name";
 
-        when(planetService.findByName(name)).thenReturn(PLANET);
+        when(planetService.findByName(name)).thenReturn(PLANET_VIEW);
 
         mockMvc.perform(
                 get("/planets/name/{name}", name)
@@ -113,20 +341,20 @@ public class PlanetControllerTest {
 
     @Test
     public void listPlanets_ReturnsAllPlanets() throws Exception {
-        when(planetService.findAll(any(), any())).thenReturn(PLANET_LIST);
+        when(planetService.findAll(any(), any(), anyInt())).thenReturn(new PlanetPage(PLANET_VIEW_LIST, null));
 
         mockMvc.perform(
                 get("/planets")
         )
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$", hasSize(PLANET_LIST.size())));
+                .andExpect(jsonPath("$", hasSize(PLANET_VIEW_LIST.size())));
 
 
     }
 
     @Test
     public void listPlanets_ReturnsFilteredPlanets() throws Exception {
-        when(planetService.findAll(TATOOINE.getTerrain(), TATOOINE.getClimate())).thenReturn(List.of(TATOOINE));
+        when(planetService.findAll(PlanetFilter.of(TATOOINE.getTerrain(), TATOOINE.getClimate()), null, 100)).thenReturn(new PlanetPage(List.of(TATOOINE_VIEW), null));
 
         mockMvc.perform(
                         get("/planets")
@@ -139,9 +367,35 @@ public class PlanetControllerTest {
 
     }
 
+    @Test
+    public void facets_ByClimate_ReturnsCounts() throws Exception {
+        when(planetService.facets(PlanetFilter.of(null, "temperate")))
+                .thenReturn(new PlanetFacets(Map.of("temperate", 2L), Map.of("jungle", 1L)));
+
+        mockMvc.perform(get("/planets/facets").param("climate", "temperate"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.climate.temperate").value(2))
+                .andExpect(jsonPath("$.terrain.jungle").value(1));
+    }
+
+    @Test
+    public void listPlanets_WithContainsMatch_ReturnsFilteredPlanets() throws Exception {
+        PlanetFilter filter = new PlanetFilter("jung", null, PlanetFilter.Match.CONTAINS);
+        when(planetService.findAll(filter, null, 100)).thenReturn(new PlanetPage(List.of(YAVIN_IV_VIEW), null));
+
+        mockMvc.perform(
+                        get("/planets")
+                                .param("terrain", "jung")
+                                .param("match", "CONTAINS")
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0]").value(YAVIN_IV));
+    }
+
     @Test
     public void listPlanets_ReturnsNoPlanets() throws Exception {
-        when(planetService.findAll(any(), any())).thenReturn(Collections.emptyList());
+        when(planetService.findAll(any(), any(), anyInt())).thenReturn(new PlanetPage(Collections.emptyList(), null));
 
         mockMvc.perform(
                 get("/planets")
@@ -151,6 +405,130 @@ public class PlanetControllerTest {
                 .andExpect(jsonPath("$", hasSize(0)));
     }
 
+    @Test
+    public void listPlanets_WithMorePages_ReturnsNextCursorAndCount() throws Exception {
+        String cursor = PlanetPage.encodeCursor(TATOOINE.getId());
+        String nextCursor = PlanetPage.encodeCursor(ALDERAAN.getId());
+        when(planetService.findAll(PlanetFilter.of(null, null), cursor, 1)).thenReturn(new PlanetPage(List.of(ALDERAAN_VIEW), nextCursor));
+        when(planetService.count(PlanetFilter.of(null, null))).thenReturn(3L);
+
+        mockMvc.perform(
+                        get("/planets")
+                                .param("cursor", cursor)
+                                .param("limit", "1")
+                                .param("count", "true")
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0]").value(ALDERAAN))
+                .andExpect(header().string("X-Next-Cursor", nextCursor))
+                .andExpect(header().string("X-Total-Count", "3"));
+    }
+
+    @Test
+    public void listPlanets_WithCurrentETag_Returns304WithoutQuerying() throws Exception {
+        when(planetService.findAll(any(), any(), anyInt())).thenReturn(new PlanetPage(PLANET_VIEW_LIST, null));
+        String etag = mockMvc.perform(get("/planets"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/planets").header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+
+        verify(planetService, times(1)).findAll(any(), any(), anyInt());
+    }
+
+    @Test
+    public void listPlanets_AfterWrite_ReturnsPlanets() throws Exception {
+        when(planetService.findAll(any(), any(), anyInt())).thenReturn(new PlanetPage(PLANET_VIEW_LIST, null));
+        String etag = mockMvc.perform(get("/planets"))
+                .andReturn().getResponse().getHeader("ETag");
+        when(planetService.catalogVersion()).thenReturn(2L);
+
+        mockMvc.perform(get("/planets").header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(PLANET_VIEW_LIST.size())));
+    }
+
+    @Test
+    public void listPlanets_WithTagFromEarlierWindow_ReturnsPlanets() throws Exception {
+        when(planetService.findAll(any(), any(), anyInt())).thenReturn(new PlanetPage(PLANET_VIEW_LIST, null));
+        String etag = mockMvc.perform(get("/planets"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/planets").header("If-None-Match", etag.replaceFirst("-[0-9a-z]+\"$", "-0\"")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(PLANET_VIEW_LIST.size())));
+    }
+
+    @Test
+    public void listPlanets_RightAfterWrite_IsNotTagged() throws Exception {
+        when(planetService.findAll(any(), any(), anyInt())).thenReturn(new PlanetPage(PLANET_VIEW_LIST, null));
+        when(planetService.catalogChangedAt()).thenReturn(System.currentTimeMillis());
+
+        mockMvc.perform(get("/planets"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("ETag"));
+    }
+
+    @Test
+    public void listPlanets_AcceptingSmile_ReturnsSmilePlanets() throws Exception {
+        when(planetService.findAll(any(), any(), anyInt())).thenReturn(new PlanetPage(PLANET_VIEW_LIST, null));
+
+        MvcResult result = mockMvc.perform(
+                        get("/planets").accept("application/x-jackson-smile")
+                )
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-jackson-smile"))
+                .andReturn();
+
+        PlanetView[] planets = SmileMapper.builder().build().readValue(result.getResponse().getContentAsByteArray(), PlanetView[].class);
+        assertThat(planets).containsExactlyElementsOf(PLANET_VIEW_LIST);
+    }
+
+    @Test
+    public void createPlanet_WithCborBody_Returns201Created() throws Exception {
+        when(planetService.create(PLANET)).thenReturn(PLANET);
+
+        mockMvc.perform(post("/planets")
+                        .content(CBORMapper.builder().build().writeValueAsBytes(PLANET))
+                        .contentType(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isCreated());
+    }
+
+    @Test
+    public void listPlanets_WithLimitOutOfRange_Returns400BadRequest() throws Exception {
+        mockMvc.perform(
+                        get("/planets").param("limit", "0")
+                )
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(planetService);
+    }
+
+    @Test
+    public void exportPlanets_ReturnsOnePlanetPerLine() throws Exception {
+        doAnswer(invocation -> {
+            Consumer<PlanetView> action = invocation.getArgument(0);
+            PLANET_VIEW_LIST.forEach(action);
+            return null;
+        }).when(planetService).forEach(any());
+
+        MvcResult result = mockMvc.perform(
+                        get("/planets/export")
+                )
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String[] lines = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString().split("\n");
+
+        assertThat(lines).hasSize(PLANET_VIEW_LIST.size());
+        assertThat(objMapper.readValue(lines[2], Planet.class)).isEqualTo(YAVIN_IV);
+    }
+
     @Test
     public void removePlanet_WithExistingId_Returns204NoContent() throws Exception {
         mockMvc.perform(
@@ -169,4 +547,17 @@ public class PlanetControllerTest {
         )
                 .andExpect(status().isNotFound());
     }
+
+    @Test
+    public void removePlanets_ByFilter_ReturnsDeletedCount() throws Exception {
+        when(planetService.deleteAll(PlanetFilter.of(null, "arid"), List.of(1L, 2L))).thenReturn(1L);
+
+        mockMvc.perform(
+                delete("/planets")
+                        .param("climate", "arid")
+                        .param("ids", "1,2")
+        )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.deleted").value(1));
+    }
 }
@@ -0,0 +1,78 @@
+package com.br.giulianabezerra.starwars_planet_api.web;
+
+import com.br.giulianabezerra.starwars_planet_api.domain.PlanetView;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static com.br.giulianabezerra.starwars_planet_api.commom.PlanetConstants.*;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class PlanetJsonCacheTest {
+
+    private final JsonMapper mapper = JsonMapper.builder().build();
+    private PlanetJsonCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new PlanetJsonCache(mapper, 100);
+    }
+
+    @Test
+    public void json_OfSamePlanet_IsEncodedOnce() {
+        byte[] sut = cache.json(TATOOINE_VIEW);
+
+        assertThat(cache.json(PlanetView.of(TATOOINE))).isSameAs(sut);
+        assertThat(sut).isEqualTo(mapper.writeValueAsBytes(TATOOINE_VIEW));
+    }
+
+    @Test
+    public void json_OfChangedPlanet_IsEncodedAgain() {
+        cache.put(TATOOINE_VIEW);
+        PlanetView changed = new PlanetView(TATOOINE_VIEW.id(), TATOOINE_VIEW.name(), "frozen", TATOOINE_VIEW.terrain());
+
+        assertThat(cache.json(changed)).isEqualTo(mapper.writeValueAsBytes(changed));
+    }
+
+    @Test
+    public void gzip_WhenNotSmallerThanJson_IsNotKept() {
+        assertThat(cache.gzip(TATOOINE_VIEW)).isNull();
+    }
+
+    @Test
+    public void gzip_WhenSmallerThanJson_IsKept() {
+        PlanetView planet = new PlanetView(1L, "Tatooine", "arid", "desert, ".repeat(40) + "canyons");
+
+        assertThat(cache.gzip(planet)).hasSizeLessThan(cache.json(planet).length);
+    }
+
+    @Test
+    public void gzip_OfSamePlanet_IsCompressedOnce() {
+        PlanetView planet = new PlanetView(1L, "Tatooine", "arid", "desert, ".repeat(40) + "canyons");
+        cache.json(planet);
+
+        assertThat(cache.gzip(planet)).isSameAs(cache.gzip(planet));
+    }
+
+    @Test
+    public void write_ConcatenatesPlanetsIntoJsonArray() throws Exception {
+        ByteArrayOutputStream sut = new ByteArrayOutputStream();
+
+        cache.write(PLANET_VIEW_LIST, sut);
+
+        assertThat(sut.toString(StandardCharsets.UTF_8)).isEqualTo(mapper.writeValueAsString(PLANET_VIEW_LIST));
+    }
+
+    @Test
+    public void write_WithNoPlanets_WritesEmptyArray() throws Exception {
+        ByteArrayOutputStream sut = new ByteArrayOutputStream();
+
+        cache.write(List.of(), sut);
+
+        assertThat(sut.toString(StandardCharsets.UTF_8)).isEqualTo("[]");
+    }
+}
@@ -2,4 +2,15 @@ DELETE FROM planets;
 
 INSERT INTO planets (id, name, climate, terrain) VALUES (1, 'Tatooine', 'arid', 'desert');
 INSERT INTO planets (id, name, climate, terrain) VALUES (2, 'Alderaan', 'temperate', 'grasslands, mountains');
-INSERT INTO planets (id, name, climate, terrain) VALUES (3, 'Yavin IV', 'temperate, tropical', 'jungle, rainforest');
\ No newline at end of file
+INSERT INTO planets (id, name, climate, terrain) VALUES (3, 'Yavin IV', 'temperate, tropical', 'jungle, rainforest');
+
+INSERT INTO planet_terrain_tags (planet_id, tag) VALUES (1, 'desert');
+INSERT INTO planet_terrain_tags (planet_id, tag) VALUES (2, 'grasslands');
+INSERT INTO planet_terrain_tags (planet_id, tag) VALUES (2, 'mountains');
+INSERT INTO planet_terrain_tags (planet_id, tag) VALUES (3, 'jungle');
+INSERT INTO planet_terrain_tags (planet_id, tag) VALUES (3, 'rainforest');
+
+INSERT INTO planet_climate_tags (planet_id, tag) VALUES (1, 'arid');
+INSERT INTO planet_climate_tags (planet_id, tag) VALUES (2, 'temperate');
+INSERT INTO planet_climate_tags (planet_id, tag) VALUES (3, 'temperate');
+INSERT INTO planet_climate_tags (planet_id, tag) VALUES (3, 'tropical');
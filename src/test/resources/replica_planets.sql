@@ -0,0 +1,9 @@
+-- A replica that has not caught up: it only has the first of the planets in import_planets.sql.
+-- Runs on every new connection, so every statement is idempotent.
+CREATE TABLE IF NOT EXISTS planets (id BIGINT PRIMARY KEY, name VARCHAR(255) NOT NULL UNIQUE, climate VARCHAR(255) NOT NULL, terrain VARCHAR(255) NOT NULL, version BIGINT DEFAULT 0);
+CREATE TABLE IF NOT EXISTS planet_terrain_tags (planet_id BIGINT NOT NULL, tag VARCHAR(255) NOT NULL, PRIMARY KEY (planet_id, tag));
+CREATE TABLE IF NOT EXISTS planet_climate_tags (planet_id BIGINT NOT NULL, tag VARCHAR(255) NOT NULL, PRIMARY KEY (planet_id, tag));
+
+MERGE INTO planets (id, name, climate, terrain) KEY (id) VALUES (1, 'Tatooine', 'arid', 'desert');
+MERGE INTO planet_terrain_tags (planet_id, tag) KEY (planet_id, tag) VALUES (1, 'desert');
+MERGE INTO planet_climate_tags (planet_id, tag) KEY (planet_id, tag) VALUES (1, 'arid');